@@ -0,0 +1,618 @@
+package com.lamiplus_common_api.api;
+
+import com.lamiplus_common_api.common.BaseAudit;
+import com.lamiplus_common_api.common.Utils;
+import jakarta.annotation.Nullable;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.metamodel.Attribute;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Complete {@link PluginDataService} for a JPA entity extending {@link BaseAudit}; a plugin only
+ * supplies the plugin id and entity name:
+ *
+ *   @Service
+ *   public class DiagnosisDataService extends AbstractJpaPluginDataService<Diagnosis> {
+ *       public DiagnosisDataService(@Qualifier("corePluginDataServiceRegistry") @Nullable PluginDataServiceRegistry registry,
+ *                                   DiagnosisRepository repository, EntityManager entityManager,
+ *                                   PlatformTransactionManager transactionManager) {
+ *           super(registry, repository, entityManager, transactionManager, Diagnosis.class);
+ *       }
+ *       protected String getPluginId() { return "clinical"; }
+ *       public String getEntityName() { return "Diagnosis"; }
+ *   }
+ *
+ * HOW IT QUERIES:
+ *   - UUID lookups: one {@code IN} query per {@value #IN_CHUNK_SIZE} UUIDs
+ *   - findByField / findByFields / findByCriteria: Criteria queries built from {@link PluginCriteria}
+ *   - projections: tuple queries selecting only the requested attributes
+ *   - count / exists / countBy / min / max: aggregate queries (countBy as one GROUP BY)
+ *   - findPage: keyset pagination on {@code id}; streamByTenantId: a database cursor
+ *   - findModifiedSince / findModifiedAfter: keyset pagination on {@code (updatedAt, id)}; index
+ *     {@code (tenant_id, updated_at, id)} on large tables
+ *   - saveAll: one transaction, flushing and clearing the persistence context every
+ *     {@value #FLUSH_INTERVAL} rows. Hibernate only groups the INSERTs into JDBC batches for
+ *     non-IDENTITY ids; BaseAudit ids are IDENTITY, so inserts still go one statement each, but
+ *     the batch costs one transaction instead of one per row and updates are batched.
+ *
+ * Reads skip archived rows (except the change feed); deletes archive ({@code archived = 1}) rather than remove rows.
+ * Saving a uuid that was archived restores and updates that row. A null patient uuid or tenantId
+ * finds nothing (it is not an IS NULL query).
+ *
+ * TENANCY: whenever a tenant is set in the context ({@link Utils#getTenantIdOrNull()}), every
+ * read, count, aggregate and delete is confined to that tenant's rows, on top of any tenantId
+ * given explicitly or in a criteria; saves refuse to update another tenant's row or to create one
+ * for another tenant, and never change a row's tenantId, uuid or creation audit. Without a
+ * tenant in context (startup, admin jobs) nothing is filtered, so pass {@code tenantId} in the
+ * criteria there.
+ * Entities are converted with {@link EntityMapper}; override {@link #toMap} / {@link #toEntity}
+ * for relationships. Transactions are demarcated programmatically, because the registry holds
+ * this instance rather than a Spring proxy, so {@code @Transactional} would not apply.
+ */
+@Slf4j
+public abstract class AbstractJpaPluginDataService<E extends BaseAudit> extends AbstractPluginDataService {
+
+    /** UUIDs per IN query, well below the bind-parameter limits of common databases. */
+    protected static final int IN_CHUNK_SIZE = 500;
+
+    /** Rows between persistence-context flushes in saveAll; match hibernate.jdbc.batch_size. */
+    protected static final int FLUSH_INTERVAL = 50;
+
+    protected final PluginTenantAwareRepository<E, Long> repository;
+    protected final EntityManager entityManager;
+    protected final Class<E> entityClass;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate readTransaction;
+
+    protected AbstractJpaPluginDataService(@Nullable PluginDataServiceRegistry dataServiceRegistry,
+                                           PluginTenantAwareRepository<E, Long> repository,
+                                           EntityManager entityManager,
+                                           PlatformTransactionManager transactionManager,
+                                           Class<E> entityClass) {
+        super(dataServiceRegistry);
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.entityClass = entityClass;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    // ========================
+    // MAPPING HOOKS
+    // ========================
+
+    protected Map<String, Object> toMap(E entity) {
+        return EntityMapper.toMap(entity);
+    }
+
+    protected E toEntity(Map<String, Object> data) {
+        return EntityMapper.toEntity(data, entityClass);
+    }
+
+    /** Identity, ownership and creation audit fields, which a save never changes on an existing row. */
+    private static final Set<String> FIXED_ON_UPDATE = Set.of("id", "uuid", "tenantId", "createdAt", "createdBy");
+
+    /**
+     * Apply an update to a loaded entity; the default copies the non-null map values except
+     * {@code id}, {@code uuid}, {@code tenantId}, {@code createdAt} and {@code createdBy}.
+     */
+    protected void update(E entity, Map<String, Object> data) {
+        if (!Collections.disjoint(data.keySet(), FIXED_ON_UPDATE)) {
+            data = new LinkedHashMap<>(data);
+            data.keySet().removeAll(FIXED_ON_UPDATE);
+        }
+        EntityMapper.applyTo(data, entity);
+    }
+
+    // ========================
+    // READ OPERATIONS
+    // ========================
+
+    @Override
+    public Optional<Map<String, Object>> findByUuid(UUID uuid) {
+        if (uuid == null) return Optional.empty();
+        return read(() -> list(where("uuid", uuid), 0, 1).stream().findFirst().map(this::toMap));
+    }
+
+    @Override
+    public List<Map<String, Object>> findByUuids(List<UUID> uuids) {
+        return read(() -> inChunks(uuids, chunk -> query(in("uuid", chunk)).getResultList().stream()
+                .map(this::toMap).toList()));
+    }
+
+    @Override
+    public List<Map<String, Object>> findByPatientUuid(UUID patientUuid) {
+        if (patientUuid == null || !hasAttribute("patientUuid")) return Collections.emptyList();
+        return maps(where("patientUuid", patientUuid));
+    }
+
+    @Override
+    public List<Map<String, Object>> findByTenantId(String tenantId) {
+        if (tenantId == null) return Collections.emptyList();
+        return maps(where("tenantId", tenantId));
+    }
+
+    @Override
+    public List<Map<String, Object>> findByPatientUuidAndTenantId(UUID patientUuid, String tenantId) {
+        if (patientUuid == null || tenantId == null || !hasAttribute("patientUuid")) return Collections.emptyList();
+        return maps(where("patientUuid", patientUuid).and(where("tenantId", tenantId)));
+    }
+
+    @Override
+    public List<Map<String, Object>> findAll(String tenantId, int page, int size) {
+        if (tenantId == null) return Collections.emptyList();
+        return read(() -> list(where("tenantId", tenantId), page * size, size).stream().map(this::toMap).toList());
+    }
+
+    @Override
+    public CursorPage findPage(String tenantId, String cursor, int size) {
+        if (tenantId == null) return CursorPage.empty();
+        Long lastId = CursorPage.lastId(cursor);
+        Specification<E> spec = where("tenantId", tenantId);
+        if (lastId != null) {
+            spec = spec.and((root, query, cb) -> cb.greaterThan(root.<Long>get("id"), lastId));
+        }
+        Specification<E> seek = spec;
+        return read(() -> {
+            // One extra row tells whether another page follows
+            List<E> rows = list(seek, 0, size + 1);
+            boolean hasMore = rows.size() > size;
+            if (hasMore) rows = rows.subList(0, size);
+
+            List<Map<String, Object>> items = rows.stream().map(this::toMap).toList();
+            return hasMore
+                    ? CursorPage.of(items, CursorPage.keysetCursor(rows.get(rows.size() - 1).getId()))
+                    : CursorPage.last(items);
+        });
+    }
+
+    /** Keyset walk over {@code (updatedAt, id)}, including archived rows as tombstones. */
+    @Override
+    public ChangeBatch findModifiedAfter(String tenantId, String resumeToken, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be at least 1");
+        ChangeBatch.Position after = ChangeBatch.position(resumeToken);
+        if (tenantId == null) return ChangeBatch.of(Collections.emptyList(), limit, resumeToken);
+        return read(() -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<E> query = cb.createQuery(entityClass);
+            Root<E> root = query.from(entityClass);
+            Path<LocalDateTime> updatedAt = root.get("updatedAt");
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(where("tenantId", tenantId).and(currentTenant()).toPredicate(root, query, cb));
+            predicates.add(cb.isNotNull(updatedAt));
+            if (after != null) {
+                predicates.add(cb.or(
+                        cb.greaterThan(updatedAt, after.updatedAt()),
+                        cb.and(cb.equal(updatedAt, after.updatedAt()),
+                                cb.greaterThan(root.<Long>get("id"), after.id()))));
+            }
+            query.select(root)
+                    .where(predicates.toArray(new Predicate[0]))
+                    .orderBy(cb.asc(updatedAt), cb.asc(root.get("id")));
+
+            // One extra row tells whether more changes follow
+            List<Map<String, Object>> rows = entityManager.createQuery(query)
+                    .setMaxResults(limit + 1)
+                    .getResultList().stream().map(this::toMap).toList();
+            return ChangeBatch.of(rows, limit, resumeToken);
+        });
+    }
+
+    /**
+     * Inside a caller's transaction this streams from a database cursor with the given fetch
+     * size, detaching each entity once mapped. Without one the cursor could not outlive this
+     * call, so it walks keyset pages of {@code fetchSize} instead.
+     */
+    @Override
+    public Stream<Map<String, Object>> streamByTenantId(String tenantId, int fetchSize) {
+        if (tenantId == null) return Stream.empty();
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return super.streamByTenantId(tenantId, fetchSize);
+        }
+        return query(where("tenantId", tenantId))
+                .setHint("org.hibernate.fetchSize", fetchSize)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream()
+                .map(entity -> {
+                    Map<String, Object> map = toMap(entity);
+                    entityManager.detach(entity);
+                    return map;
+                });
+    }
+
+    @Override
+    public List<Map<String, Object>> findByField(String fieldName, Object value) {
+        return findByCriteria(PluginCriteria.create().eq(fieldName, value));
+    }
+
+    @Override
+    public List<Map<String, Object>> findByFields(Map<String, Object> criteria) {
+        PluginCriteria query = PluginCriteria.create();
+        criteria.forEach(query::eq);
+        return findByCriteria(query);
+    }
+
+    @Override
+    public List<Map<String, Object>> findByCriteria(PluginCriteria criteria) {
+        return maps(criteria.toSpecification());
+    }
+
+    @Override
+    public long count(PluginCriteria criteria) {
+        return repository.count(live().and(criteria.toSpecification()));
+    }
+
+    @Override
+    public boolean exists(PluginCriteria criteria) {
+        return repository.exists(live().and(criteria.toSpecification()));
+    }
+
+    @Override
+    public Map<Object, Long> countBy(String field, PluginCriteria criteria) {
+        requireAttribute(field);
+        return read(() -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Tuple> query = cb.createTupleQuery();
+            Root<E> root = query.from(entityClass);
+            Path<Object> group = root.get(field);
+            Expression<Long> count = cb.count(root);
+            query.multiselect(group, count)
+                    .where(live().and(criteria.toSpecification()).toPredicate(root, query, cb))
+                    .groupBy(group)
+                    .orderBy(cb.desc(count));
+
+            Map<Object, Long> counts = new LinkedHashMap<>();
+            for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+                counts.put(EntityMapper.serializeValue(tuple.get(0)), tuple.get(1, Long.class));
+            }
+            return counts;
+        });
+    }
+
+    @Override
+    public Optional<Object> min(String field, PluginCriteria criteria) {
+        return extreme(field, criteria, false);
+    }
+
+    @Override
+    public Optional<Object> max(String field, PluginCriteria criteria) {
+        return extreme(field, criteria, true);
+    }
+
+    @Override
+    public Optional<Object> findByObjectUuid(UUID uuid) {
+        if (uuid == null) return Optional.empty();
+        return read(() -> list(where("uuid", uuid), 0, 1).stream().findFirst().<Object>map(entity -> entity));
+    }
+
+    // ========================
+    // PROJECTIONS
+    // ========================
+
+    @Override
+    public Optional<Map<String, Object>> findByUuid(UUID uuid, Set<String> fields) {
+        if (uuid == null) return Optional.empty();
+        return project(where("uuid", uuid), fields).stream().findFirst();
+    }
+
+    @Override
+    public List<Map<String, Object>> findByUuids(List<UUID> uuids, Set<String> fields) {
+        return inChunks(uuids, chunk -> project(in("uuid", chunk), fields));
+    }
+
+    @Override
+    public List<Map<String, Object>> findByPatientUuid(UUID patientUuid, Set<String> fields) {
+        if (patientUuid == null || !hasAttribute("patientUuid")) return Collections.emptyList();
+        return project(where("patientUuid", patientUuid), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findByField(String fieldName, Object value, Set<String> fields) {
+        return findByCriteria(PluginCriteria.create().eq(fieldName, value), fields);
+    }
+
+    @Override
+    public List<Map<String, Object>> findByCriteria(PluginCriteria criteria, Set<String> fields) {
+        return project(criteria.toSpecification(), fields);
+    }
+
+    // ========================
+    // WRITE OPERATIONS
+    // ========================
+
+    @Override
+    public Map<String, Object> save(Map<String, Object> data) {
+        return writeTransaction.execute(status -> {
+            UUID uuid = toUuid(data.get("uuid"));
+            E existing = uuid != null ? loadByUuid(List.of(uuid)).get(uuid) : null;
+            return toMap(persist(existing, data));
+        });
+    }
+
+    /**
+     * Saves in one transaction, {@value #FLUSH_INTERVAL} rows at a time: one IN query loads the
+     * rows to update, then the chunk is flushed and mapped. When this call started the transaction
+     * the chunk is also cleared from the persistence context to keep it small; inside a caller's
+     * transaction it is not, since clearing would detach the caller's entities and drop their
+     * pending changes.
+     */
+    @Override
+    public List<Map<String, Object>> saveAll(List<Map<String, Object>> dataList) {
+        if (dataList == null || dataList.isEmpty()) return Collections.emptyList();
+
+        boolean joined = TransactionSynchronizationManager.isActualTransactionActive();
+        return writeTransaction.execute(status -> {
+            List<Map<String, Object>> results = new ArrayList<>(dataList.size());
+            List<E> saved = new ArrayList<>(FLUSH_INTERVAL);
+
+            for (int from = 0; from < dataList.size(); from += FLUSH_INTERVAL) {
+                List<Map<String, Object>> chunk = dataList.subList(from, Math.min(from + FLUSH_INTERVAL, dataList.size()));
+                Map<UUID, E> existing = loadExisting(chunk);
+
+                for (Map<String, Object> data : chunk) {
+                    UUID uuid = toUuid(data.get("uuid"));
+                    E entity = persist(uuid != null ? existing.get(uuid) : null, data);
+                    if (uuid != null) existing.put(uuid, entity);
+                    saved.add(entity);
+                }
+
+                entityManager.flush();
+                for (E entity : saved) {
+                    results.add(toMap(entity));
+                }
+                if (!joined) entityManager.clear();
+                saved.clear();
+            }
+            return results;
+        });
+    }
+
+    /** Archives the row; returns false if there is no live row with this UUID. */
+    @Override
+    public boolean deleteByUuid(UUID uuid) {
+        return uuid != null && !deleteByUuids(List.of(uuid)).isEmpty();
+    }
+
+    /** Archives the rows with one UPDATE per chunk, returning the UUIDs that were live. */
+    @Override
+    public List<UUID> deleteByUuids(List<UUID> uuids) {
+        if (uuids == null || uuids.isEmpty()) return Collections.emptyList();
+
+        return writeTransaction.execute(status -> inChunks(uuids, chunk -> {
+            List<UUID> live = selectUuids(in("uuid", chunk));
+            if (live.isEmpty()) return live;
+
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaUpdate<E> update = cb.createCriteriaUpdate(entityClass);
+            Root<E> root = update.from(entityClass);
+            update.set(root.<Integer>get("archived"), 1)
+                    .set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now())
+                    .where(root.get("uuid").in(live));
+            entityManager.createQuery(update).executeUpdate();
+            return live;
+        }));
+    }
+
+    // ========================
+    // INTERNAL
+    // ========================
+
+    /**
+     * Update {@code existing} or insert a new row. Saving over an archived row restores it
+     * (unless the data itself archives it again). With a tenant in context, saving over another
+     * tenant's row or inserting one for another tenant is refused, and a new row without a
+     * tenantId gets the context tenant.
+     */
+    private E persist(E existing, Map<String, Object> data) {
+        String tenantId = Utils.getTenantIdOrNull();
+        if (existing != null) {
+            if (tenantId != null && existing.getTenantId() != null && !tenantId.equals(existing.getTenantId())) {
+                throw new IllegalStateException(entityClass.getSimpleName() + " " + existing.getUuid()
+                        + " belongs to another tenant");
+            }
+            if (existing.getArchived() != null && existing.getArchived() != 0) {
+                existing.setArchived(0);
+            }
+            update(existing, data);
+            return existing;
+        }
+        E entity = toEntity(data);
+        if (tenantId != null) {
+            if (entity.getTenantId() == null) {
+                entity.setTenantId(tenantId);
+            } else if (!tenantId.equals(entity.getTenantId())) {
+                throw new IllegalStateException("Cannot create " + entityClass.getSimpleName()
+                        + " for tenant " + entity.getTenantId() + " from tenant " + tenantId);
+            }
+        }
+        entity.setId(null);
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private Map<UUID, E> loadExisting(List<Map<String, Object>> chunk) {
+        List<UUID> uuids = new ArrayList<>();
+        for (Map<String, Object> data : chunk) {
+            UUID uuid = toUuid(data.get("uuid"));
+            if (uuid != null) uuids.add(uuid);
+        }
+        return loadByUuid(uuids);
+    }
+
+    /**
+     * Rows to update, archived ones included: a uuid is unique however the row was deleted, so
+     * a save must find it rather than insert a second row with the same uuid.
+     */
+    private Map<UUID, E> loadByUuid(List<UUID> uuids) {
+        Map<UUID, E> existing = new HashMap<>();
+        if (uuids.isEmpty()) return existing;
+
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(entityClass);
+        Root<E> root = query.from(entityClass);
+        query.select(root).where(root.get("uuid").in(uuids));
+        for (E entity : entityManager.createQuery(query).getResultList()) {
+            existing.put(entity.getUuid(), entity);
+        }
+        return existing;
+    }
+
+    private <T> T read(Supplier<T> work) {
+        return readTransaction.execute(status -> work.get());
+    }
+
+    private List<Map<String, Object>> maps(Specification<E> spec) {
+        return read(() -> query(spec).getResultList().stream().map(this::toMap).toList());
+    }
+
+    private List<E> list(Specification<E> spec, int offset, int limit) {
+        return query(spec).setFirstResult(offset).setMaxResults(limit).getResultList();
+    }
+
+    /** Live rows matching {@code spec}, ordered by id. */
+    private TypedQuery<E> query(Specification<E> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(entityClass);
+        Root<E> root = query.from(entityClass);
+        query.select(root)
+                .where(live().and(spec).toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query);
+    }
+
+    private List<UUID> selectUuids(Specification<E> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UUID> query = cb.createQuery(UUID.class);
+        Root<E> root = query.from(entityClass);
+        query.select(root.get("uuid")).where(live().and(spec).toPredicate(root, query, cb));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    /** Select only the requested attributes (unknown names are ignored), mapped like toMap. */
+    private List<Map<String, Object>> project(Specification<E> spec, Set<String> fields) {
+        List<String> attributes = new ArrayList<>();
+        if (fields != null) {
+            for (String field : fields) {
+                if (hasAttribute(field)) attributes.add(field);
+            }
+        }
+        if (attributes.isEmpty()) return EntityMapper.project(maps(spec), fields);
+        return read(() -> selectAttributes(spec, attributes));
+    }
+
+    private List<Map<String, Object>> selectAttributes(Specification<E> spec, List<String> attributes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityClass);
+        List<Selection<?>> selections = new ArrayList<>(attributes.size());
+        for (String attribute : attributes) {
+            selections.add(root.get(attribute).alias(attribute));
+        }
+        query.multiselect(selections)
+                .where(live().and(spec).toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+
+        CompactRowMap.Schema schema = CompactRowMap.Schema.of(attributes);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).getResultList()) {
+            Map<String, Object> row = schema.newRow();
+            for (String attribute : attributes) {
+                row.put(attribute, EntityMapper.serializeValue(tuple.get(attribute)));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Optional<Object> extreme(String field, PluginCriteria criteria, boolean greatest) {
+        Class<?> type = requireAttribute(field);
+        if (!Comparable.class.isAssignableFrom(type) && !type.isPrimitive()) {
+            throw new IllegalArgumentException("Attribute '" + field + "' of " + entityClass.getSimpleName()
+                    + " is not comparable");
+        }
+        return read(() -> {
+            CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+            CriteriaQuery<Comparable> query = cb.createQuery(Comparable.class);
+            Root<E> root = query.from(entityClass);
+            Expression<Comparable> value = root.get(field);
+            query.select(greatest ? cb.greatest(value) : cb.least(value))
+                    .where(live().and(criteria.toSpecification()).toPredicate(root, query, cb));
+            return Optional.ofNullable(EntityMapper.serializeValue(entityManager.createQuery(query).getSingleResult()));
+        });
+    }
+
+    /** The Java type of an attribute, rejecting unknown names before they reach a query. */
+    private Class<?> requireAttribute(String name) {
+        if (!hasAttribute(name)) {
+            throw new IllegalArgumentException("Unknown attribute '" + name + "' on " + entityClass.getSimpleName());
+        }
+        return entityManager.getMetamodel().entity(entityClass).getAttribute(name).getJavaType();
+    }
+
+    private <T> List<T> inChunks(List<UUID> uuids, Function<List<UUID>, List<T>> query) {
+        if (uuids == null || uuids.isEmpty()) return Collections.emptyList();
+        List<UUID> distinct = new ArrayList<>(new LinkedHashSet<>(uuids));
+        if (distinct.size() <= IN_CHUNK_SIZE) return query.apply(distinct);
+
+        List<T> results = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += IN_CHUNK_SIZE) {
+            results.addAll(query.apply(distinct.subList(from, Math.min(from + IN_CHUNK_SIZE, distinct.size()))));
+        }
+        return results;
+    }
+
+    protected boolean hasAttribute(String name) {
+        try {
+            Attribute<? super E, ?> attribute = entityManager.getMetamodel().entity(entityClass).getAttribute(name);
+            return attribute != null;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /** Equality with the operand converted to the attribute type (e.g. a String patientUuid). */
+    private Specification<E> where(String attribute, Object value) {
+        return PluginCriteria.create().eq(attribute, value).toSpecification();
+    }
+
+    private Specification<E> in(String attribute, Collection<?> values) {
+        return (root, query, cb) -> root.get(attribute).in(values);
+    }
+
+    /** Rows normal reads may see: not archived, and of the current tenant when one is set. */
+    private Specification<E> live() {
+        return notArchived().and(currentTenant());
+    }
+
+    /** No restriction without a tenant in context (startup, admin jobs). */
+    private Specification<E> currentTenant() {
+        String tenantId = Utils.getTenantIdOrNull();
+        return (root, query, cb) -> tenantId == null ? null : cb.equal(root.get("tenantId"), tenantId);
+    }
+
+    private Specification<E> notArchived() {
+        return (root, query, cb) -> cb.or(cb.isNull(root.get("archived")), cb.equal(root.get("archived"), 0));
+    }
+}
@@ -0,0 +1,65 @@
+package com.lamiplus_common_api.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-item outcome of a bulk {@link PluginBridge} operation, in input order.
+ *
+ * An item either succeeded (with the saved entity, or the deleted UUID) or failed; a failed item
+ * carries the exception that caused it, or none when the service simply reported it as not done
+ * (e.g. deleting a UUID that does not exist).
+ */
+public final class BulkResult<T> {
+
+    public record Outcome<T>(int index, T value, boolean success, Throwable error) {}
+
+    private final List<Outcome<T>> outcomes;
+
+    BulkResult(List<Outcome<T>> outcomes) {
+        this.outcomes = Collections.unmodifiableList(outcomes);
+    }
+
+    public List<Outcome<T>> getOutcomes() {
+        return outcomes;
+    }
+
+    /** Values of the successful items. */
+    public List<T> getSucceeded() {
+        List<T> values = new ArrayList<>();
+        for (Outcome<T> outcome : outcomes) {
+            if (outcome.success()) values.add(outcome.value());
+        }
+        return values;
+    }
+
+    public List<Outcome<T>> getFailed() {
+        List<Outcome<T>> failed = new ArrayList<>();
+        for (Outcome<T> outcome : outcomes) {
+            if (!outcome.success()) failed.add(outcome);
+        }
+        return failed;
+    }
+
+    public int getSuccessCount() {
+        int count = 0;
+        for (Outcome<T> outcome : outcomes) {
+            if (outcome.success()) count++;
+        }
+        return count;
+    }
+
+    public int getFailureCount() {
+        return outcomes.size() - getSuccessCount();
+    }
+
+    public boolean isComplete() {
+        return getFailureCount() == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkResult[" + getSuccessCount() + " succeeded, " + getFailureCount() + " failed]";
+    }
+}
@@ -0,0 +1,183 @@
+package com.lamiplus_common_api.api;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * One batch of an incremental change feed (see {@link PluginDataService#findModifiedSince}).
+ *
+ * Rows come in {@code (updatedAt, id)} order. Live rows are in {@link #getChanges()}; rows that
+ * were archived (soft-deleted) since the watermark appear only as {@link Tombstone}s so a sync
+ * job can delete its copy.
+ *
+ * USAGE (nightly sync):
+ *   ChangeBatch batch = service.findModifiedSince(tenantId, lastRun, 1000);
+ *   apply(batch);
+ *   while (batch.hasMore()) {
+ *       batch = service.findModifiedAfter(tenantId, batch.getResumeToken(), 1000);
+ *       apply(batch);
+ *   }
+ *   lastRun = batch.getNextWatermark();
+ *
+ * Continue within a run with the resume token, which is exact even when many rows share one
+ * timestamp. Store {@link #getNextWatermark()} between runs. The watermark is inclusive, so the
+ * rows at that instant are delivered again: the feed is at-least-once and applying it must be
+ * idempotent. Timestamps are {@code LocalDateTime} in the database and are converted with the
+ * system time zone.
+ */
+public final class ChangeBatch {
+
+    private static final char POSITION = 'c';
+
+    /** An archived row: its uuid and when it was archived. */
+    public record Tombstone(UUID uuid, Instant archivedAt) {}
+
+    /** A feed position: after the row with this {@code updatedAt} and {@code id}. */
+    public record Position(LocalDateTime updatedAt, long id) {}
+
+    private final List<Map<String, Object>> changes;
+    private final List<Tombstone> tombstones;
+    private final Instant nextWatermark;
+    private final String resumeToken;
+    private final boolean hasMore;
+
+    private ChangeBatch(List<Map<String, Object>> changes, List<Tombstone> tombstones,
+                        Instant nextWatermark, String resumeToken, boolean hasMore) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.tombstones = Collections.unmodifiableList(tombstones);
+        this.nextWatermark = nextWatermark;
+        this.resumeToken = resumeToken;
+        this.hasMore = hasMore;
+    }
+
+    /**
+     * Build a batch from rows already in {@code (updatedAt, id)} order and past {@code resumeToken}.
+     * Pass up to {@code limit + 1} rows; an extra row only signals that more follow.
+     */
+    public static ChangeBatch of(List<Map<String, Object>> orderedRows, int limit, String resumeToken) {
+        Position start = position(resumeToken);
+        boolean hasMore = orderedRows.size() > limit;
+        List<Map<String, Object>> rows = hasMore ? orderedRows.subList(0, limit) : orderedRows;
+
+        List<Map<String, Object>> changes = new ArrayList<>(rows.size());
+        List<Tombstone> tombstones = new ArrayList<>();
+        Position last = start;
+        for (Map<String, Object> row : rows) {
+            LocalDateTime updatedAt = updatedAt(row);
+            if (isArchived(row)) {
+                tombstones.add(new Tombstone(uuid(row), toInstant(updatedAt)));
+            } else {
+                changes.add(row);
+            }
+            if (updatedAt != null) last = new Position(updatedAt, id(row));
+        }
+
+        return new ChangeBatch(changes, tombstones,
+                last == null ? null : toInstant(last.updatedAt()),
+                last == start ? resumeToken : resumeToken(last),
+                hasMore);
+    }
+
+    public List<Map<String, Object>> getChanges() {
+        return changes;
+    }
+
+    public List<Tombstone> getTombstones() {
+        return tombstones;
+    }
+
+    /** {@code updatedAt} of the last row, or the starting point if the batch is empty. */
+    public Instant getNextWatermark() {
+        return nextWatermark;
+    }
+
+    /** Token for {@link PluginDataService#findModifiedAfter}; unchanged if the batch is empty. */
+    public String getResumeToken() {
+        return resumeToken;
+    }
+
+    public boolean hasMore() {
+        return hasMore;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty() && tombstones.isEmpty();
+    }
+
+    // ========================
+    // POSITIONS
+    // ========================
+
+    /** Token starting at {@code watermark}, inclusive; null means from the beginning. */
+    public static String startingAt(Instant watermark) {
+        if (watermark == null) return null;
+        return resumeToken(new Position(LocalDateTime.ofInstant(watermark, ZoneId.systemDefault()), Long.MIN_VALUE));
+    }
+
+    public static String resumeToken(Position position) {
+        String token = POSITION + position.updatedAt().toString() + "|" + position.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** The position a token resumes after; null for a null token. */
+    public static Position position(String resumeToken) {
+        if (resumeToken == null) return null;
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(resumeToken), StandardCharsets.US_ASCII);
+            int separator = token.lastIndexOf('|');
+            if (!token.isEmpty() && token.charAt(0) == POSITION && separator > 0) {
+                return new Position(LocalDateTime.parse(token.substring(1, separator)),
+                        Long.parseLong(token.substring(separator + 1)));
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid or foreign resume token: " + resumeToken);
+    }
+
+    /** Whether a row lies past {@code position} (rows without {@code updatedAt} never do). */
+    static boolean isAfter(Map<String, Object> row, Position position) {
+        LocalDateTime updatedAt = updatedAt(row);
+        if (updatedAt == null) return false;
+        if (position == null) return true;
+        int byTime = updatedAt.compareTo(position.updatedAt());
+        return byTime > 0 || (byTime == 0 && id(row) > position.id());
+    }
+
+    /** Feed order: {@code updatedAt}, then {@code id}. */
+    static final Comparator<Map<String, Object>> FEED_ORDER = Comparator
+            .comparing(ChangeBatch::updatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(ChangeBatch::id);
+
+    private static LocalDateTime updatedAt(Map<String, Object> row) {
+        return (LocalDateTime) EntityMapper.deserializeValue(row.get("updatedAt"), LocalDateTime.class);
+    }
+
+    private static long id(Map<String, Object> row) {
+        Long id = (Long) EntityMapper.deserializeValue(row.get("id"), Long.class);
+        return id == null ? 0L : id;
+    }
+
+    private static UUID uuid(Map<String, Object> row) {
+        return (UUID) EntityMapper.deserializeValue(row.get("uuid"), UUID.class);
+    }
+
+    private static boolean isArchived(Map<String, Object> row) {
+        Integer archived = (Integer) EntityMapper.deserializeValue(row.get("archived"), Integer.class);
+        return archived != null && archived != 0;
+    }
+
+    private static Instant toInstant(LocalDateTime time) {
+        return time == null ? null : time.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeBatch[" + changes.size() + " changes, " + tombstones.size() + " tombstones, hasMore="
+                + hasMore + "]";
+    }
+}
@@ -0,0 +1,323 @@
+package com.lamiplus_common_api.api;
+
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Memory-lean {@code Map<String, Object>} for entity rows: field names live once in a
+ * {@link Schema} shared by every row of a type, and each row holds only an {@code Object[]} of
+ * values. A LinkedHashMap row costs an entry object, a table slot and the links per field; this
+ * costs one array slot.
+ *
+ * It behaves like a LinkedHashMap in every other respect but one: iteration follows schema order,
+ * then keys added outside the schema in insertion order, so a schema key that is removed and put
+ * again goes back to its schema position (a LinkedHashMap would move it to the end). Null values
+ * are allowed; put/remove work for any key (keys outside the schema go to a small overflow map).
+ * Not thread-safe, and iterators are not fail-fast. Rows are Serializable when their values
+ * are; each deserialized row gets its own copy of the schema.
+ *
+ * USAGE:
+ *   private static final CompactRowMap.Schema SCHEMA = CompactRowMap.Schema.of("uuid", "status");
+ *
+ *   Map<String, Object> row = SCHEMA.newRow();
+ *   row.put("uuid", d.getUuid().toString());
+ *   row.put("status", d.getStatus().name());
+ *
+ * {@link EntityMapper#toMap(Object)} returns these already, with one schema per entity class.
+ */
+public final class CompactRowMap extends AbstractMap<String, Object> implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Marks a schema slot that holds no mapping (distinct from a mapping to null). */
+    private static final Object ABSENT = new Object();
+
+    private final Schema schema;
+    private final Object[] values;
+    private int present;
+    private Map<String, Object> overflow;
+
+    private CompactRowMap(Schema schema) {
+        this.schema = schema;
+        this.values = new Object[schema.names.length];
+        Arrays.fill(values, ABSENT);
+    }
+
+    private CompactRowMap(CompactRowMap source) {
+        this.schema = source.schema;
+        this.values = source.values.clone();
+        this.present = source.present;
+        this.overflow = source.overflow == null ? null : new LinkedHashMap<>(source.overflow);
+    }
+
+    /** Independent copy of any row: compact rows keep their schema, others become a LinkedHashMap. */
+    public static Map<String, Object> copyOf(Map<String, Object> row) {
+        if (row instanceof CompactRowMap compact) return compact.copy();
+        return new LinkedHashMap<>(row);
+    }
+
+    public CompactRowMap copy() {
+        return new CompactRowMap(this);
+    }
+
+    public Schema getSchema() {
+        return schema;
+    }
+
+    // ========================
+    // MAP
+    // ========================
+
+    @Override
+    public int size() {
+        return present + (overflow == null ? 0 : overflow.size());
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        int slot = schema.slotOf(key);
+        if (slot >= 0) return values[slot] != ABSENT;
+        return overflow != null && overflow.containsKey(key);
+    }
+
+    @Override
+    public Object get(Object key) {
+        int slot = schema.slotOf(key);
+        if (slot >= 0) return valueAt(slot);
+        return overflow == null ? null : overflow.get(key);
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        int slot = schema.slotOf(key);
+        if (slot < 0) {
+            if (overflow == null) overflow = new LinkedHashMap<>(4);
+            return overflow.put(key, value);
+        }
+        Object previous = values[slot];
+        values[slot] = value;
+        if (previous == ABSENT) {
+            present++;
+            return null;
+        }
+        return previous;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        int slot = schema.slotOf(key);
+        if (slot >= 0) return clearSlot(slot);
+        return overflow == null ? null : overflow.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, ABSENT);
+        present = 0;
+        overflow = null;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return CompactRowMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                CompactRowMap.this.clear();
+            }
+        };
+    }
+
+    private Object valueAt(int slot) {
+        Object value = values[slot];
+        return value == ABSENT ? null : value;
+    }
+
+    private Object clearSlot(int slot) {
+        Object previous = values[slot];
+        if (previous == ABSENT) return null;
+        values[slot] = ABSENT;
+        present--;
+        return previous;
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+        private int next = advance(0);
+        private int last = -1;
+        private boolean lastFromOverflow;
+        private Iterator<Map.Entry<String, Object>> overflowEntries;
+
+        private int advance(int from) {
+            int slot = from;
+            while (slot < values.length && values[slot] == ABSENT) slot++;
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) return true;
+            if (overflowEntries == null) {
+                if (overflow == null) return false;
+                overflowEntries = overflow.entrySet().iterator();
+            }
+            return overflowEntries.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (next < values.length) {
+                last = next;
+                next = advance(next + 1);
+                return new SlotEntry(last);
+            }
+            last = -1;
+            lastFromOverflow = true;
+            return overflowEntries.next();
+        }
+
+        @Override
+        public void remove() {
+            if (lastFromOverflow) {
+                overflowEntries.remove();
+                lastFromOverflow = false;
+            } else if (last >= 0) {
+                clearSlot(last);
+                last = -1;
+            } else {
+                throw new IllegalStateException();
+            }
+        }
+    }
+
+    /** Write-through entry for a schema slot. */
+    private final class SlotEntry implements Map.Entry<String, Object> {
+        private final int slot;
+
+        SlotEntry(int slot) {
+            this.slot = slot;
+        }
+
+        @Override
+        public String getKey() {
+            return schema.names[slot];
+        }
+
+        @Override
+        public Object getValue() {
+            return valueAt(slot);
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            return put(getKey(), value);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry<?, ?> e
+                    && getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ Objects.hashCode(getValue());
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+
+    // ========================
+    // SERIALIZATION
+    // ========================
+
+    // The ABSENT sentinel cannot survive serialization, so rows travel as field names plus their
+    // entries in iteration order and are rebuilt on the way in.
+
+    @Serial
+    private Object writeReplace() {
+        return new SerializedRow(schema.names, new LinkedHashMap<>(this));
+    }
+
+    @Serial
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("CompactRowMap is deserialized through SerializedRow");
+    }
+
+    private record SerializedRow(String[] names, LinkedHashMap<String, Object> entries) implements Serializable {
+        @Serial
+        private Object readResolve() {
+            CompactRowMap row = Schema.of(names).newRow();
+            row.putAll(entries);
+            return row;
+        }
+    }
+
+    // ========================
+    // SCHEMA
+    // ========================
+
+    /** Ordered, immutable set of field names shared by all rows of one shape. */
+    public static final class Schema {
+        private final String[] names;
+        private final Map<String, Integer> slots;
+
+        private Schema(String[] names) {
+            this.names = names;
+            Map<String, Integer> index = new HashMap<>(names.length * 2);
+            for (int i = 0; i < names.length; i++) {
+                if (index.put(Objects.requireNonNull(names[i], "field name"), i) != null) {
+                    throw new IllegalArgumentException("Duplicate field in schema: " + names[i]);
+                }
+            }
+            this.slots = index;
+        }
+
+        public static Schema of(String... fieldNames) {
+            return new Schema(fieldNames.clone());
+        }
+
+        public static Schema of(Collection<String> fieldNames) {
+            return new Schema(fieldNames.toArray(new String[0]));
+        }
+
+        /** An empty row; put values into it like any map. */
+        public CompactRowMap newRow() {
+            return new CompactRowMap(this);
+        }
+
+        public List<String> getFieldNames() {
+            return List.of(names);
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        int slotOf(Object fieldName) {
+            Integer slot = slots.get(fieldName);
+            return slot == null ? -1 : slot;
+        }
+
+        @Override
+        public String toString() {
+            return "Schema" + Arrays.toString(names);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.lamiplus_common_api.api;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a cursor-paginated walk (see {@link PluginDataService#findPage}).
+ *
+ * The cursor is an opaque token: pass {@link #getNextCursor()} back unchanged to get the next
+ * page, and stop when {@link #hasMore()} is false. Two kinds of token exist:
+ *   - keyset: the last {@code id} returned; the next query seeks {@code id > lastId}, so every
+ *     page costs the same however deep the walk is.
+ *   - offset: the next page number, used by services that only implement {@code findAll}.
+ * Tokens are only meaningful to the service that issued them.
+ */
+public final class CursorPage {
+
+    private static final char KEYSET = 'k';
+    private static final char OFFSET = 'o';
+
+    private final List<Map<String, Object>> items;
+    private final String nextCursor;
+
+    private CursorPage(List<Map<String, Object>> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /** A page followed by more; {@code nextCursor} from {@link #keysetCursor} or {@link #offsetCursor}. */
+    public static CursorPage of(List<Map<String, Object>> items, String nextCursor) {
+        return new CursorPage(items, nextCursor);
+    }
+
+    /** The final page of the walk. */
+    public static CursorPage last(List<Map<String, Object>> items) {
+        return new CursorPage(items, null);
+    }
+
+    public static CursorPage empty() {
+        return new CursorPage(Collections.emptyList(), null);
+    }
+
+    public List<Map<String, Object>> getItems() {
+        return items;
+    }
+
+    /** Token for the next page, or null on the last page. */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    // ========================
+    // CURSOR TOKENS
+    // ========================
+
+    /** Token resuming after the row with this id. */
+    public static String keysetCursor(long lastId) {
+        return encode(KEYSET, lastId);
+    }
+
+    /** Token resuming at this (zero-based) page number. */
+    public static String offsetCursor(int page) {
+        return encode(OFFSET, page);
+    }
+
+    /** The id to seek after; null for the first page. */
+    public static Long lastId(String cursor) {
+        return cursor == null ? null : decode(cursor, KEYSET);
+    }
+
+    /** The page number to fetch; 0 for the first page. */
+    public static int page(String cursor) {
+        if (cursor == null) return 0;
+        long page = decode(cursor, OFFSET);
+        if (page < 0 || page > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid or foreign page cursor: " + cursor);
+        }
+        return (int) page;
+    }
+
+    private static String encode(char kind, long value) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((kind + Long.toString(value)).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decode(String cursor, char kind) {
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+            if (!token.isEmpty() && token.charAt(0) == kind) {
+                return Long.parseLong(token, 1, token.length(), 10);
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through to the error below
+        }
+        throw new IllegalArgumentException("Invalid or foreign page cursor: " + cursor);
+    }
+
+    @Override
+    public String toString() {
+        return "CursorPage[" + items.size() + " items, hasMore=" + hasMore() + "]";
+    }
+}
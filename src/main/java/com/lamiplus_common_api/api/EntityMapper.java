@@ -48,6 +48,9 @@ import java.util.*;
  *   - Fields annotated with @Transient
  *   - Static and final fields
  *   - Collections and complex nested objects (log a warning)
+ *
+ * Maps are {@link CompactRowMap}s sharing one schema per entity class; the field scan is cached
+ * per class too.
  */
 @Slf4j
 public final class EntityMapper {
@@ -66,17 +69,33 @@ public final class EntityMapper {
     public static Map<String, Object> toMap(Object entity) {
         if (entity == null) return Collections.emptyMap();
 
-        Map<String, Object> map = new LinkedHashMap<>();
-        List<Field> fields = getAllFields(entity.getClass());
+        MappedFields mapped = MAPPED_FIELDS.get(entity.getClass());
+        CompactRowMap map = mapped.schema().newRow();
+        for (Field field : mapped.fields()) {
+            try {
+                map.put(field.getName(), serializeValue(field.get(entity)));
+            } catch (IllegalAccessException e) {
+                log.warn("Cannot access field '{}' on {}", field.getName(), entity.getClass().getSimpleName());
+            }
+        }
+
+        return map;
+    }
 
-        for (Field field : fields) {
-            if (shouldSkipField(field)) continue;
+    /**
+     * Convert only the named fields of an entity (a projection); other fields are not read.
+     * Unknown names are ignored. A null or empty set means all fields.
+     */
+    public static Map<String, Object> toMapProjected(Object entity, Set<String> fieldNames) {
+        if (fieldNames == null || fieldNames.isEmpty()) return toMap(entity);
+        if (entity == null) return Collections.emptyMap();
 
-            field.setAccessible(true);
+        MappedFields mapped = MAPPED_FIELDS.get(entity.getClass());
+        CompactRowMap map = mapped.schema().newRow();
+        for (Field field : mapped.fields()) {
+            if (!fieldNames.contains(field.getName())) continue;
             try {
-                Object value = field.get(entity);
-                String key = field.getName();
-                map.put(key, serializeValue(value));
+                map.put(field.getName(), serializeValue(field.get(entity)));
             } catch (IllegalAccessException e) {
                 log.warn("Cannot access field '{}' on {}", field.getName(), entity.getClass().getSimpleName());
             }
@@ -85,6 +104,36 @@ public final class EntityMapper {
         return map;
     }
 
+    /**
+     * Trim an already mapped entity to the named fields, keeping its order.
+     * A null or empty set returns the map unchanged.
+     */
+    public static Map<String, Object> project(Map<String, Object> map, Set<String> fieldNames) {
+        if (fieldNames == null || fieldNames.isEmpty() || map == null) return map;
+
+        if (map instanceof CompactRowMap compact) {
+            CompactRowMap projected = compact.copy();
+            projected.keySet().retainAll(fieldNames);
+            return projected;
+        }
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            if (fieldNames.contains(entry.getKey())) projected.put(entry.getKey(), entry.getValue());
+        }
+        return projected;
+    }
+
+    /** {@link #project(Map, Set)} applied to every row. */
+    public static List<Map<String, Object>> project(List<Map<String, Object>> maps, Set<String> fieldNames) {
+        if (fieldNames == null || fieldNames.isEmpty() || maps == null) return maps;
+
+        List<Map<String, Object>> projected = new ArrayList<>(maps.size());
+        for (Map<String, Object> map : maps) {
+            projected.add(project(map, fieldNames));
+        }
+        return projected;
+    }
+
     /**
      * Convert entity to Map, but also flatten a specific JPA relationship
      * to just its UUID. Useful for ManyToOne relationships.
@@ -128,36 +177,40 @@ public final class EntityMapper {
         }
 
         try {
-            T entity = entityClass.getDeclaredConstructor().newInstance();
-            List<Field> fields = getAllFields(entityClass);
-
-            for (Field field : fields) {
-                if (shouldSkipField(field)) continue;
-
-                String key = field.getName();
-                if (!data.containsKey(key)) continue;
-
-                Object value = data.get(key);
-                if (value == null) continue;
+            return applyTo(data, entityClass.getDeclaredConstructor().newInstance());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to create entity " + entityClass.getSimpleName(), e);
+        }
+    }
 
-                field.setAccessible(true);
-                Object converted = deserializeValue(value, field.getType());
-                if (converted != null) {
+    /**
+     * Copy map values onto an existing entity (e.g. one loaded for an update), with the same
+     * conversions as {@link #toEntity}. Keys that are absent or null leave the field unchanged.
+     */
+    public static <T> T applyTo(Map<String, Object> data, T entity) {
+        for (Field field : MAPPED_FIELDS.get(entity.getClass()).fields()) {
+            String key = field.getName();
+            Object value = data.get(key);
+            if (value == null) continue;
+
+            Object converted = deserializeValue(value, field.getType());
+            if (converted != null) {
+                try {
                     field.set(entity, converted);
+                } catch (IllegalAccessException e) {
+                    log.warn("Cannot set field '{}' on {}", key, entity.getClass().getSimpleName());
                 }
             }
-
-            return entity;
-        } catch (ReflectiveOperationException e) {
-            throw new RuntimeException("Failed to create entity " + entityClass.getSimpleName(), e);
         }
+        return entity;
     }
 
     // ========================
     // SERIALIZATION (Entity field → Map value)
     // ========================
 
-    private static Object serializeValue(Object value) {
+    /** Also used for projected query results; see {@link AbstractJpaPluginDataService}. */
+    static Object serializeValue(Object value) {
         if (value == null) return null;
 
         // UUID → String
@@ -195,8 +248,9 @@ public final class EntityMapper {
     // DESERIALIZATION (Map value → Entity field)
     // ========================
 
+    /** Also used by {@link PluginCriteria} to convert query operands; returns null if not convertible. */
     @SuppressWarnings({"unchecked", "rawtypes"})
-    private static Object deserializeValue(Object value, Class<?> targetType) {
+    static Object deserializeValue(Object value, Class<?> targetType) {
         if (value == null) return null;
 
         // Already the correct type
@@ -259,6 +313,30 @@ public final class EntityMapper {
     // REFLECTION HELPERS
     // ========================
 
+    /** Mapped fields of a class (already accessible) and the row schema built from their names. */
+    private record MappedFields(Field[] fields, CompactRowMap.Schema schema) {}
+
+    /**
+     * Field scan per class, done once: toMap on a list of entities used to walk the class
+     * hierarchy and check annotations for every row. A field shadowing a superclass field of the
+     * same name keeps both, subclass first, so toMap ends up with the superclass value and
+     * toEntity sets both, as they did before the scan was cached.
+     */
+    private static final ClassValue<MappedFields> MAPPED_FIELDS = new ClassValue<>() {
+        @Override
+        protected MappedFields computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            Set<String> names = new LinkedHashSet<>();
+            for (Field field : getAllFields(type)) {
+                if (shouldSkipField(field)) continue;
+                field.setAccessible(true);
+                fields.add(field);
+                names.add(field.getName());
+            }
+            return new MappedFields(fields.toArray(new Field[0]), CompactRowMap.Schema.of(names));
+        }
+    };
+
     /**
      * Get all fields from the class and its superclasses.
      * This picks up BaseAudit fields like tenantId, uuid, createdAt, etc.
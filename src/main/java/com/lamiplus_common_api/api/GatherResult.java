@@ -0,0 +1,53 @@
+package com.lamiplus_common_api.api;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Combined result of {@link PluginBridge#gather}: the rows of every entity that answered in time,
+ * and the reason for every one that did not (a {@link TimeoutException}, an unavailable service
+ * or the exception the service threw). Both maps keep the requested entity order.
+ */
+public final class GatherResult {
+
+    private final Map<String, List<Map<String, Object>>> results;
+    private final Map<String, Throwable> failures;
+
+    GatherResult(Map<String, List<Map<String, Object>>> results, Map<String, Throwable> failures) {
+        this.results = Collections.unmodifiableMap(results);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /** Rows for one entity; empty if it failed or was not requested. */
+    public List<Map<String, Object>> get(String entityName) {
+        return results.getOrDefault(entityName, Collections.emptyList());
+    }
+
+    public Map<String, List<Map<String, Object>>> getResults() {
+        return results;
+    }
+
+    public Map<String, Throwable> getFailures() {
+        return failures;
+    }
+
+    public boolean isFailed(String entityName) {
+        return failures.containsKey(entityName);
+    }
+
+    public boolean isTimedOut(String entityName) {
+        return failures.get(entityName) instanceof TimeoutException;
+    }
+
+    /** True when every requested entity answered. */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "GatherResult[ok=" + results.keySet() + ", failed=" + failures.keySet() + "]";
+    }
+}
@@ -0,0 +1,48 @@
+package com.lamiplus_common_api.api;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazily walks a cursor-paginated query one page at a time, so at most one page of rows is
+ * reachable from the stream at any point. Backs the default {@link PluginDataService#streamByTenantId},
+ * which walks {@link PluginDataService#findPage}: offset pages by default, keyset pages where the
+ * service supports them.
+ */
+final class PagedSpliterator extends Spliterators.AbstractSpliterator<Map<String, Object>> {
+
+    private final Function<String, CursorPage> pageLoader;
+
+    private Iterator<Map<String, Object>> current;
+    private String cursor;
+    private boolean lastPage;
+
+    private PagedSpliterator(Function<String, CursorPage> pageLoader) {
+        super(Long.MAX_VALUE, Spliterator.ORDERED);
+        this.pageLoader = pageLoader;
+    }
+
+    /** Stream over {@code pageLoader(null)}, then each page's next cursor until the last page. */
+    static Stream<Map<String, Object>> stream(Function<String, CursorPage> pageLoader) {
+        return StreamSupport.stream(new PagedSpliterator(pageLoader), false);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Map<String, Object>> action) {
+        while (current == null || !current.hasNext()) {
+            if (lastPage) return false;
+            CursorPage page = pageLoader.apply(cursor);
+            cursor = page.getNextCursor();
+            lastPage = !page.hasMore();
+            current = page.getItems().iterator();
+        }
+        action.accept(current.next());
+        return true;
+    }
+}
@@ -5,27 +5,132 @@ package com.lamiplus_common_api.api;
 import com.lamiplus_common_api.api.PluginDataService;
 import com.lamiplus_common_api.api.PluginDataServiceRegistry;
 import com.lamiplus_common_api.exception.PluginServiceUnavailableException;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 @Slf4j
 @Component
 public class PluginBridge {
 
-    private PluginDataServiceRegistry registry;
+    /** Rows fetched per round trip by {@link FindBuilder#stream(String)}. */
+    public static final int DEFAULT_FETCH_SIZE = 500;
+
+    /** Items per {@code saveAll}/{@code deleteByUuids} call in bulk operations. */
+    public static final int DEFAULT_CHUNK_SIZE = 500;
+
+    /** Per-entity deadline of {@link #gather(UUID, String...)}. */
+    public static final Duration DEFAULT_GATHER_TIMEOUT = Duration.ofSeconds(5);
+
+    /** Bulkhead key prefix for gather calls, so entity names cannot collide with service names. */
+    private static final String GATHER_BULKHEAD = "gather:";
+
+    private volatile PluginDataServiceRegistry registry;
+
+    private final Map<String, EntityHandle> handles = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean missingRegistryWarned = new AtomicBoolean();
+
+    private final ThreadLocal<BatchScope> batchScope = new ThreadLocal<>();
+
+    private volatile PluginEntityCache entityCache;
+
+    private final Map<String, WriteBehindBuffer> writeBuffers = new ConcurrentHashMap<>();
+    private int writeBehindCapacity = 10_000;
+    private int writeBehindBatchSize = DEFAULT_CHUNK_SIZE;
+    private Duration writeBehindFlushInterval = Duration.ofSeconds(1);
+    private Duration writeBehindEnqueueTimeout = Duration.ofSeconds(5);
+    /** Set once under the {@code writeBuffers} lock, which also guards buffer creation. */
+    private volatile boolean shutDown;
 
     @Autowired(required = false)
     @Qualifier("corePluginDataServiceRegistry")
     public void setRegistry(PluginDataServiceRegistry registry) {
         this.registry = registry;
+        handles.values().forEach(EntityHandle::invalidate);
         log.info("PluginBridge initialized with registry: {}", registry != null);
     }
 
+    /**
+     * Enable the read-through cache behind {@code byUuid}/{@code byUuids}. It is off by default:
+     * writes that do not go through this bridge are only picked up once the TTL expires, so keep
+     * the TTL short for entities other plugins update directly.
+     */
+    @Autowired
+    public void configureEntityCache(
+            @Value("${plugin.bridge.entity-cache.enabled:false}") boolean enabled,
+            @Value("${plugin.bridge.entity-cache.ttl-seconds:60}") long ttlSeconds,
+            @Value("${plugin.bridge.entity-cache.max-megabytes:64}") long maxMegabytes) {
+        this.entityCache = enabled
+                ? new PluginEntityCache(Duration.ofSeconds(ttlSeconds), maxMegabytes * 1024 * 1024)
+                : null;
+        if (enabled) {
+            log.info("PluginBridge entity cache enabled: ttl={}s, max={}MB", ttlSeconds, maxMegabytes);
+        }
+    }
+
+    /** Sizing of the per-entity queues behind {@link SaveBuilder#enqueue()}; applies to queues created afterwards. */
+    @Autowired
+    public void configureWriteBehind(
+            @Value("${plugin.bridge.write-behind.capacity:10000}") int capacity,
+            @Value("${plugin.bridge.write-behind.batch-size:500}") int batchSize,
+            @Value("${plugin.bridge.write-behind.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${plugin.bridge.write-behind.enqueue-timeout-ms:5000}") long enqueueTimeoutMs) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("write-behind capacity and batch size must be at least 1");
+        }
+        this.writeBehindCapacity = capacity;
+        this.writeBehindBatchSize = batchSize;
+        this.writeBehindFlushInterval = Duration.ofMillis(flushIntervalMs);
+        this.writeBehindEnqueueTimeout = Duration.ofMillis(enqueueTimeoutMs);
+    }
+
+    /** Save every write queued by {@link SaveBuilder#enqueue()} so far, on the calling thread. */
+    public void flushWrites() {
+        writeBuffers.values().forEach(WriteBehindBuffer::flush);
+    }
+
+    /** Flush queued writes before the context goes away. */
+    @PreDestroy
+    public void shutdown() {
+        synchronized (writeBuffers) {
+            shutDown = true;
+        }
+        writeBuffers.values().forEach(buffer -> buffer.close(Duration.ofSeconds(30)));
+        writeBuffers.clear();
+    }
+
+    /** Drop a cached entity, for callers that modify it without going through the bridge. */
+    public void evict(String entityName, UUID uuid) {
+        PluginEntityCache cache = entityCache;
+        if (cache != null) cache.invalidate(entityName, uuid);
+        BatchScope scope = batchScope.get();
+        if (scope != null) scope.forget(entityName, uuid);
+    }
+
+    /**
+     * Reusable handle for one entity that remembers its resolved service, e.g. held in a field:
+     * {@code private final PluginBridge.EntityHandle diagnoses = bridge.entity("Diagnosis");}
+     * Handles are shared per entity name and re-resolve when the registry generation changes.
+     */
+    public EntityHandle entity(String entityName) {
+        EntityHandle handle = handles.get(entityName);
+        return handle != null ? handle : handles.computeIfAbsent(entityName, EntityHandle::new);
+    }
 
     public FindBuilder find(String entityName) {
         return new FindBuilder(entityName);
@@ -36,6 +141,11 @@ public class PluginBridge {
     }
 
 
+    /** Save many entities in chunks, with a per-item outcome. */
+    public BulkSaveBuilder saveAll(String entityName) {
+        return new BulkSaveBuilder(entityName);
+    }
+
     public DeleteBuilder delete(String entityName) {
         return new DeleteBuilder(entityName);
     }
@@ -45,71 +155,347 @@ public class PluginBridge {
         return getService(entityName).isPresent();
     }
 
+    /**
+     * Attach referenced entities to rows in one round trip instead of a {@code byUuid} per row:
+     * collects the distinct UUIDs in {@code foreignKey}, loads them with a single
+     * {@code find(entityName).byUuids(...)} (so batch scopes, the entity cache and projections
+     * apply) and puts each referenced entity, or null if it was not found, under {@code attachAs}.
+     *
+     * <pre>
+     * List&lt;Map&lt;String, Object&gt;&gt; diagnoses = bridge.find("Diagnosis").byPatient(patientUuid);
+     * bridge.join(diagnoses, "consultationUuid", "Consultation", "consultation", "uuid", "visitDate");
+     * </pre>
+     *
+     * Rows are modified in place and must be mutable (as returned by the bridge); rows sharing a
+     * key share the attached map. Rows with a missing or malformed key get null.
+     *
+     * @param fields optional projection of the referenced entity
+     * @return {@code rows}
+     */
+    public List<Map<String, Object>> join(List<Map<String, Object>> rows, String foreignKey,
+                                          String entityName, String attachAs, String... fields) {
+        if (rows == null || rows.isEmpty()) return rows;
+
+        Set<UUID> keys = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            UUID key = toUuid(row.get(foreignKey));
+            if (key != null) keys.add(key);
+        }
+
+        Map<UUID, Map<String, Object>> referenced = new HashMap<>();
+        if (!keys.isEmpty()) {
+            FindBuilder find = find(entityName);
+            if (fields.length > 0) {
+                // the uuid is needed to match results to rows
+                Set<String> selection = new LinkedHashSet<>(Arrays.asList(fields));
+                selection.add("uuid");
+                find.select(selection.toArray(new String[0]));
+            }
+            for (Map<String, Object> entity : find.byUuids(new ArrayList<>(keys))) {
+                UUID uuid = uuidOf(entity);
+                if (uuid != null) referenced.put(uuid, entity);
+            }
+        }
+        log.debug("PluginBridge joined {} {} rows to {} of {} {}",
+                rows.size(), foreignKey, referenced.size(), keys.size(), entityName);
+
+        for (Map<String, Object> row : rows) {
+            UUID key = toUuid(row.get(foreignKey));
+            row.put(attachAs, key != null ? referenced.get(key) : null);
+        }
+        return rows;
+    }
+
+    /**
+     * Load a patient's rows from several entities at once, e.g. for a patient summary:
+     * {@code bridge.gather(patientUuid, "Diagnosis", "Admission", "Prescription")}.
+     * See {@link #gather(UUID, Duration, String...)}.
+     */
+    public GatherResult gather(UUID patientUuid, String... entityNames) {
+        return gather(patientUuid, DEFAULT_GATHER_TIMEOUT, entityNames);
+    }
+
+    /**
+     * Issue {@code findByPatientUuid} to every entity's service concurrently on virtual threads,
+     * with the caller's tenant context, and wait for all of them. An entity that does not answer
+     * within {@code timeout} is cancelled and reported as timed out; unavailable services and
+     * errors are reported too. Rows of the entities that did answer are always returned, so the
+     * call takes as long as the slowest entity (at most {@code timeout}), not the sum of all.
+     * Calls are bounded per entity by their own bulkhead ({@code "gather:" + entityName}), apart
+     * from the service-name bulkheads of {@link ServiceProxy}.
+     */
+    public GatherResult gather(UUID patientUuid, Duration timeout, String... entityNames) {
+        Map<String, CompletableFuture<List<Map<String, Object>>>> calls = new LinkedHashMap<>();
+        for (String entityName : entityNames) {
+            if (calls.containsKey(entityName)) continue;
+            Optional<PluginDataService> service = getService(entityName);
+            calls.put(entityName, service.isEmpty()
+                    ? CompletableFuture.failedFuture(new PluginServiceUnavailableException(entityName))
+                    : ServiceCallExecutor.submit(GATHER_BULKHEAD + entityName, timeout,
+                            () -> service.get().findByPatientUuid(patientUuid)));
+        }
+
+        Map<String, List<Map<String, Object>>> results = new LinkedHashMap<>();
+        Map<String, Throwable> failures = new LinkedHashMap<>();
+        calls.forEach((entityName, call) -> {
+            try {
+                List<Map<String, Object>> rows = call.join();
+                results.put(entityName, rows != null ? rows : Collections.emptyList());
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                failures.put(entityName, cause);
+            }
+        });
+
+        if (!failures.isEmpty()) {
+            log.warn("PluginBridge gather for patient {} incomplete: {}", patientUuid, failures.keySet());
+        }
+        return new GatherResult(results, failures);
+    }
+
+    /**
+     * Open a batching scope on the current thread (typically one per request). While it is open,
+     * lookups by UUID are de-duplicated: each entity is fetched at most once; see {@link BatchScope}.
+     * Only {@code byUuidDeferred} lookups are coalesced, queued until the first {@code get()}
+     * and then fetched in one {@link PluginDataService#findByUuids} call. Plain {@code byUuid}
+     * is not coalesced: it fetches right away (together with anything already queued), so a loop
+     * of {@code byUuid} calls still makes one call per new UUID. Scopes nest: opening one inside
+     * another returns the outer scope, which stays open until its outermost close.
+     *
+     * <pre>
+     * try (PluginBridge.BatchScope scope = bridge.openBatchScope()) {
+     *     List&lt;Supplier&lt;Optional&lt;Map&lt;String, Object&gt;&gt;&gt;&gt; diagnoses = uuids.stream()
+     *             .map(uuid -&gt; bridge.find("Diagnosis").byUuidDeferred(uuid))
+     *             .toList();
+     *     diagnoses.forEach(d -&gt; render(d.get()));   // one findByUuids call
+     * }
+     * </pre>
+     */
+    public BatchScope openBatchScope() {
+        BatchScope scope = batchScope.get();
+        if (scope == null) {
+            scope = new BatchScope();
+            batchScope.set(scope);
+        }
+        scope.depth++;
+        return scope;
+    }
+
 
 
     public class FindBuilder {
         private final String entityName;
+        private Set<String> selection;
 
         FindBuilder(String entityName) {
             this.entityName = entityName;
         }
 
-        /** Find a single entity by UUID */
+        /**
+         * Return only the named fields, e.g. {@code find("Diagnosis").select("uuid", "status").byPatient(p)}.
+         * Services that support projections read just those columns; others are trimmed after the fetch.
+         */
+        public FindBuilder select(String... fields) {
+            this.selection = fields.length == 0 ? null : Set.of(fields);
+            return this;
+        }
+
+        /** Find a single entity by UUID (inside a batch scope: fetched at most once, taking pending deferred lookups along) */
         public Optional<Map<String, Object>> byUuid(UUID uuid) {
-            return getService(entityName)
-                    .flatMap(s -> s.findByUuid(uuid));
+            BatchScope scope = batchScope.get();
+            if (scope != null) {
+                return scope.load(entityName, uuid).map(this::fromScope);
+            }
+            if (selection != null) {
+                PluginEntityCache cache = entityCache;
+                Optional<Map<String, Object>> cached = cache != null ? cache.get(entityName, uuid) : Optional.empty();
+                if (cached.isPresent()) return cached.map(this::project);
+                return getService(entityName).flatMap(s -> s.findByUuid(uuid, selection));
+            }
+            return fetch(entityName, uuid);
+        }
+
+        /**
+         * Queue a lookup and return a handle that resolves it on first {@code get()}.
+         * Inside a batch scope, all lookups queued before that point are fetched together;
+         * outside one this is simply a lazy {@link #byUuid}.
+         */
+        public Supplier<Optional<Map<String, Object>>> byUuidDeferred(UUID uuid) {
+            BatchScope scope = batchScope.get();
+            if (scope != null) {
+                scope.enqueue(entityName, uuid);
+                return () -> scope.load(entityName, uuid).map(this::fromScope);
+            }
+            return () -> byUuid(uuid);
         }
 
         /** Find multiple entities by UUIDs */
         public List<Map<String, Object>> byUuids(List<UUID> uuids) {
-            return getService(entityName)
-                    .map(s -> s.findByUuids(uuids))
-                    .orElse(Collections.emptyList());
+            BatchScope scope = batchScope.get();
+            if (scope != null) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for (Map<String, Object> row : scope.loadAll(entityName, uuids)) rows.add(fromScope(row));
+                return rows;
+            }
+            return fetchAll(entityName, uuids, selection);
         }
 
         /** Find all entities for a patient */
         public List<Map<String, Object>> byPatient(UUID patientUuid) {
             return getService(entityName)
-                    .map(s -> s.findByPatientUuid(patientUuid))
+                    .map(s -> selection != null
+                            ? s.findByPatientUuid(patientUuid, selection)
+                            : s.findByPatientUuid(patientUuid))
                     .orElse(Collections.emptyList());
         }
 
         /** Find all entities for a tenant */
         public List<Map<String, Object>> byTenant(String tenantId) {
             return getService(entityName)
-                    .map(s -> s.findByTenantId(tenantId))
+                    .map(s -> EntityMapper.project(s.findByTenantId(tenantId), selection))
                     .orElse(Collections.emptyList());
         }
 
         /** Find by patient + tenant */
         public List<Map<String, Object>> byPatientAndTenant(UUID patientUuid, String tenantId) {
             return getService(entityName)
-                    .map(s -> s.findByPatientUuidAndTenantId(patientUuid, tenantId))
+                    .map(s -> EntityMapper.project(s.findByPatientUuidAndTenantId(patientUuid, tenantId), selection))
                     .orElse(Collections.emptyList());
         }
 
         /** Find by a custom field (e.g., "consultationUuid") */
         public List<Map<String, Object>> byField(String fieldName, Object value) {
             return getService(entityName)
-                    .map(s -> s.findByField(fieldName, value))
+                    .map(s -> selection != null
+                            ? s.findByField(fieldName, value, selection)
+                            : s.findByField(fieldName, value))
                     .orElse(Collections.emptyList());
         }
 
+        /**
+         * Stream all entities for a tenant in constant memory, {@value PluginBridge#DEFAULT_FETCH_SIZE} rows
+         * per fetch. Close the stream when done:
+         * <pre>
+         * try (Stream&lt;Map&lt;String, Object&gt;&gt; rows = bridge.find("Diagnosis").stream(tenantId)) {
+         *     rows.forEach(writer::write);
+         * }
+         * </pre>
+         */
+        public Stream<Map<String, Object>> stream(String tenantId) {
+            return stream(tenantId, DEFAULT_FETCH_SIZE);
+        }
+
+        /** Stream all entities for a tenant, {@code fetchSize} rows per round trip */
+        public Stream<Map<String, Object>> stream(String tenantId, int fetchSize) {
+            return getService(entityName)
+                    .map(s -> selection != null
+                            ? s.streamByTenantId(tenantId, fetchSize).map(this::project)
+                            : s.streamByTenantId(tenantId, fetchSize))
+                    .orElseGet(Stream::empty);
+        }
+
         /** Find with pagination */
         public List<Map<String, Object>> paged(String tenantId, int page, int size) {
             return getService(entityName)
-                    .map(s -> s.findAll(tenantId, page, size))
+                    .map(s -> EntityMapper.project(s.findAll(tenantId, page, size), selection))
+                    .orElse(Collections.emptyList());
+        }
+
+
+        /**
+         * Cursor pagination: {@code null} cursor for the first page, then the previous page's
+         * {@link CursorPage#getNextCursor()} until {@link CursorPage#hasMore()} is false.
+         */
+        public CursorPage page(String tenantId, String cursor, int size) {
+            return getService(entityName)
+                    .map(s -> s.findPage(tenantId, cursor, size))
+                    .map(p -> selection == null ? p
+                            : CursorPage.of(EntityMapper.project(p.getItems(), selection), p.getNextCursor()))
+                    .orElseGet(CursorPage::empty);
+        }
+
+        /** Rows changed since {@code watermark}, see {@link PluginDataService#findModifiedSince} (empty when unavailable) */
+        public ChangeBatch modifiedSince(String tenantId, Instant watermark, int limit) {
+            return getService(entityName)
+                    .map(s -> s.findModifiedSince(tenantId, watermark, limit))
+                    .orElseGet(() -> ChangeBatch.of(Collections.emptyList(), limit, ChangeBatch.startingAt(watermark)));
+        }
+
+        /** Continue a change feed from {@link ChangeBatch#getResumeToken()} (empty when unavailable) */
+        public ChangeBatch modifiedAfter(String tenantId, String resumeToken, int limit) {
+            return getService(entityName)
+                    .map(s -> s.findModifiedAfter(tenantId, resumeToken, limit))
+                    .orElseGet(() -> ChangeBatch.of(Collections.emptyList(), limit, resumeToken));
+        }
+
+        /** Find by a criteria filter, evaluated by the owning service (in the database where supported) */
+        public List<Map<String, Object>> byCriteria(PluginCriteria criteria) {
+            return getService(entityName)
+                    .map(s -> selection != null
+                            ? s.findByCriteria(criteria, selection)
+                            : s.findByCriteria(criteria))
                     .orElse(Collections.emptyList());
         }
 
+        /** Number of entities matching the criteria (0 when the service is unavailable) */
+        public long count(PluginCriteria criteria) {
+            return getService(entityName)
+                    .map(s -> s.count(criteria))
+                    .orElse(0L);
+        }
+
+        /** Whether any entity matches the criteria (false when the service is unavailable) */
+        public boolean exists(PluginCriteria criteria) {
+            return getService(entityName)
+                    .map(s -> s.exists(criteria))
+                    .orElse(false);
+        }
+
+        /** Number of entities per value of {@code field}, largest group first (empty when unavailable) */
+        public Map<Object, Long> countBy(String field, PluginCriteria criteria) {
+            return getService(entityName)
+                    .map(s -> s.countBy(field, criteria))
+                    .orElse(Collections.emptyMap());
+        }
+
+        public Map<Object, Long> countBy(String field) {
+            return countBy(field, PluginCriteria.create());
+        }
+
+        /** Smallest value of {@code field} among the matches (empty when none or unavailable) */
+        public Optional<Object> min(String field, PluginCriteria criteria) {
+            return getService(entityName).flatMap(s -> s.min(field, criteria));
+        }
+
+        /** Largest value of {@code field} among the matches (empty when none or unavailable) */
+        public Optional<Object> max(String field, PluginCriteria criteria) {
+            return getService(entityName).flatMap(s -> s.max(field, criteria));
+        }
 
+        /** Find by a field, keeping rows whose {@code filterField} equals {@code filterValue} ignoring case */
         public List<Map<String, Object>> byFieldFiltered(
                 String fieldName, Object fieldValue,
                 String filterField, String filterValue) {
-            return byField(fieldName, fieldValue).stream()
-                    .filter(d -> filterValue.equalsIgnoreCase(
-                            String.valueOf(d.get(filterField))))
-                    .collect(Collectors.toList());
+            if (fieldValue == null) {
+                // eq(field, null) is no equality, which findByCriteria cannot serve everywhere:
+                // look the field up directly and filter here, as before criteria existed
+                PluginCriteria filter = PluginCriteria.create().eqIgnoreCase(filterField, filterValue);
+                return getService(entityName)
+                        .map(s -> EntityMapper.project(filter.filter(s.findByField(fieldName, null)), selection))
+                        .orElse(Collections.emptyList());
+            }
+            return byCriteria(PluginCriteria.create()
+                    .eq(fieldName, fieldValue)
+                    .eqIgnoreCase(filterField, filterValue));
+        }
+
+        private Map<String, Object> project(Map<String, Object> row) {
+            return EntityMapper.project(row, selection);
+        }
+
+        /** Batch scopes keep one row per UUID; callers get their own copy, which they may modify. */
+        private Map<String, Object> fromScope(Map<String, Object> row) {
+            return selection != null ? project(row) : CompactRowMap.copyOf(row);
         }
     }
 
@@ -143,11 +529,26 @@ public class PluginBridge {
                         log.debug("PluginBridge saving {} with fields: {}", entityName, data.keySet());
                         Map<String, Object> saved = s.save(data);
                         log.info("PluginBridge saved {}: {}", entityName, saved.get("uuid"));
+                        evict(entityName, uuidOf(data));
+                        evict(entityName, uuidOf(saved));
                         return saved;
                     })
                     .orElseThrow(() -> new PluginServiceUnavailableException(entityName));
         }
 
+        /**
+         * Queue the save instead of executing it: writes are collected per entity and saved in
+         * batches through {@code saveAll} by a background flusher, under the tenant that queued them.
+         * Use for high-volume writes that need no confirmation (vitals, event logs); failures are
+         * only logged. Blocks briefly while the queue is full.
+         *
+         * @throws IllegalStateException if there is no tenant in the context or the data
+         * @throws java.util.concurrent.RejectedExecutionException if the queue stays full
+         */
+        public void enqueue() {
+            writeBuffer(entityName).enqueue(new LinkedHashMap<>(data));
+        }
+
         /** Execute the save, return Optional (won't throw if unavailable) */
         public Optional<Map<String, Object>> executeSafe() {
             try {
@@ -159,6 +560,220 @@ public class PluginBridge {
         }
     }
 
+    // ========================
+    // ENTITY HANDLES
+    // ========================
+
+    /**
+     * An entity name bound to its resolved {@link PluginDataService}. The lookup result (including
+     * "not registered") is kept until {@link PluginDataServiceRegistry#getGeneration()} changes;
+     * registries that do not track a generation are consulted on every call.
+     */
+    public class EntityHandle {
+        private final String entityName;
+        private volatile Resolved resolved;
+
+        private EntityHandle(String entityName) {
+            this.entityName = entityName;
+        }
+
+        public String getEntityName() {
+            return entityName;
+        }
+
+        /** The current service, if one is registered for the entity */
+        public Optional<PluginDataService> service() {
+            PluginDataServiceRegistry current = registry;
+            if (current == null) {
+                if (missingRegistryWarned.compareAndSet(false, true)) {
+                    log.warn("PluginBridge: registry not available, cross-plugin data access disabled");
+                } else {
+                    log.debug("PluginBridge: registry not available, cannot access {}", entityName);
+                }
+                return Optional.empty();
+            }
+
+            long generation = current.getGeneration();
+            Resolved cached = resolved;
+            if (generation >= 0 && cached != null && cached.registry == current && cached.generation == generation) {
+                return cached.service;
+            }
+            Optional<PluginDataService> service = current.getServiceByEntity(entityName);
+            if (generation >= 0) resolved = new Resolved(current, generation, service);
+            return service;
+        }
+
+        public boolean isAvailable() {
+            return service().isPresent();
+        }
+
+        public FindBuilder find() {
+            return new FindBuilder(entityName);
+        }
+
+        public SaveBuilder save() {
+            return new SaveBuilder(entityName);
+        }
+
+        public BulkSaveBuilder saveAll() {
+            return new BulkSaveBuilder(entityName);
+        }
+
+        public DeleteBuilder delete() {
+            return new DeleteBuilder(entityName);
+        }
+
+        void invalidate() {
+            resolved = null;
+        }
+
+        @Override
+        public String toString() {
+            return "EntityHandle[" + entityName + "]";
+        }
+    }
+
+    private record Resolved(PluginDataServiceRegistry registry, long generation, Optional<PluginDataService> service) {}
+
+    // ========================
+    // BULK SAVE BUILDER
+    // ========================
+
+    /**
+     * Saves entities through {@link PluginDataService#saveAll}, {@code chunkSize} at a time. When a
+     * chunk fails its items are retried one by one, so a bad record only fails itself. This assumes
+     * {@code saveAll} is atomic per call (transactional); otherwise new rows it wrote before the
+     * failure are inserted again, unless {@link #assignUuids()} is used.
+     */
+    public class BulkSaveBuilder {
+        private final String entityName;
+        private final List<Map<String, Object>> items = new ArrayList<>();
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+        private boolean assignUuids;
+
+        BulkSaveBuilder(String entityName) {
+            this.entityName = entityName;
+        }
+
+        /** Add an entity to save (null values dropped, UUIDs sent as strings, as in {@link SaveBuilder#field}) */
+        public BulkSaveBuilder add(Map<String, Object> fields) {
+            Map<String, Object> data = new LinkedHashMap<>();
+            fields.forEach((key, value) -> {
+                if (value != null) data.put(key, value instanceof UUID ? value.toString() : value);
+            });
+            items.add(data);
+            return this;
+        }
+
+        public BulkSaveBuilder addAll(Collection<? extends Map<String, Object>> entities) {
+            entities.forEach(this::add);
+            return this;
+        }
+
+        public BulkSaveBuilder chunkSize(int chunkSize) {
+            if (chunkSize < 1) throw new IllegalArgumentException("chunkSize must be at least 1");
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        /**
+         * Give every new entity (one without a {@code uuid}) a random uuid before saving. After a
+         * failed chunk, rows the chunk already committed are then found by uuid and reported as
+         * saved instead of being inserted twice. Only for services whose save creates a row for an
+         * unknown uuid (as {@link AbstractJpaPluginDataService} does); services that read a uuid as
+         * "update this row" would fail every insert, so this is off by default.
+         */
+        public BulkSaveBuilder assignUuids() {
+            this.assignUuids = true;
+            return this;
+        }
+
+        /** Save everything; outcomes hold the saved entities */
+        public BulkResult<Map<String, Object>> execute() {
+            PluginDataService service = getService(entityName)
+                    .orElseThrow(() -> new PluginServiceUnavailableException(entityName));
+
+            BitSet generated = new BitSet(items.size());
+            if (assignUuids) {
+                for (int i = 0; i < items.size(); i++) {
+                    if (items.get(i).putIfAbsent("uuid", UUID.randomUUID().toString()) == null) generated.set(i);
+                }
+            }
+
+            List<BulkResult.Outcome<Map<String, Object>>> outcomes = new ArrayList<>(items.size());
+            for (int from = 0; from < items.size(); from += chunkSize) {
+                List<Map<String, Object>> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+                try {
+                    List<Map<String, Object>> saved = service.saveAll(chunk);
+                    // Results can only be paired with inputs when the service returns one per item
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Map<String, Object> entity = saved != null && saved.size() == chunk.size() ? saved.get(i) : null;
+                        outcomes.add(new BulkResult.Outcome<>(from + i, entity, true, null));
+                        evictSaved(chunk.get(i), entity);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("PluginBridge saveAll of {} {} failed ({}), retrying items individually",
+                            chunk.size(), entityName, e.getMessage());
+                    Map<UUID, Map<String, Object>> committed = committedBefore(service, chunk, from, generated);
+                    for (int i = 0; i < chunk.size(); i++) {
+                        Map<String, Object> row = generated.get(from + i) ? committed.get(uuidOf(chunk.get(i))) : null;
+                        if (row != null) {
+                            outcomes.add(new BulkResult.Outcome<>(from + i, row, true, null));
+                            evictSaved(chunk.get(i), row);
+                        } else {
+                            outcomes.add(saveOne(service, from + i, chunk.get(i)));
+                        }
+                    }
+                }
+            }
+
+            BulkResult<Map<String, Object>> result = new BulkResult<>(outcomes);
+            log.info("PluginBridge bulk saved {}: {}", entityName, result);
+            return result;
+        }
+
+        /**
+         * New rows of a failed chunk that were written anyway (non-transactional saveAll), by the
+         * uuid assigned to them; empty when no uuids were assigned or the lookup fails.
+         */
+        private Map<UUID, Map<String, Object>> committedBefore(PluginDataService service, List<Map<String, Object>> chunk,
+                                                               int from, BitSet generated) {
+            List<UUID> uuids = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                if (generated.get(from + i)) uuids.add(uuidOf(chunk.get(i)));
+            }
+            if (uuids.isEmpty()) return Collections.emptyMap();
+
+            Map<UUID, Map<String, Object>> committed = new HashMap<>();
+            try {
+                for (Map<String, Object> row : service.findByUuids(uuids)) {
+                    UUID uuid = uuidOf(row);
+                    if (uuid != null) committed.put(uuid, row);
+                }
+            } catch (RuntimeException e) {
+                log.warn("PluginBridge could not check which {} of the failed chunk were saved: {}", entityName, e.getMessage());
+            }
+            return committed;
+        }
+
+        private BulkResult.Outcome<Map<String, Object>> saveOne(PluginDataService service, int index,
+                                                                Map<String, Object> data) {
+            try {
+                Map<String, Object> saved = service.save(data);
+                evictSaved(data, saved);
+                return new BulkResult.Outcome<>(index, saved, true, null);
+            } catch (RuntimeException e) {
+                log.warn("PluginBridge failed to save {} #{}: {}", entityName, index, e.getMessage());
+                return new BulkResult.Outcome<>(index, null, false, e);
+            }
+        }
+
+        private void evictSaved(Map<String, Object> data, Map<String, Object> saved) {
+            evict(entityName, uuidOf(data));
+            if (saved != null) evict(entityName, uuidOf(saved));
+        }
+    }
+
     // ========================
     // DELETE BUILDER
     // ========================
@@ -172,9 +787,139 @@ public class PluginBridge {
 
         /** Delete by UUID */
         public boolean byUuid(UUID uuid) {
-            return getService(entityName)
+            boolean deleted = getService(entityName)
                     .map(s -> s.deleteByUuid(uuid))
                     .orElse(false);
+            evict(entityName, uuid);
+            return deleted;
+        }
+
+        /**
+         * Delete many UUIDs through {@link PluginDataService#deleteByUuids}, {@value PluginBridge#DEFAULT_CHUNK_SIZE}
+         * at a time. Outcomes hold the UUIDs; one that was not deleted (e.g. not found) fails without
+         * an error. A chunk that throws is retried one UUID at a time.
+         */
+        public BulkResult<UUID> byUuids(List<UUID> uuids) {
+            PluginDataService service = getService(entityName)
+                    .orElseThrow(() -> new PluginServiceUnavailableException(entityName));
+
+            List<BulkResult.Outcome<UUID>> outcomes = new ArrayList<>(uuids.size());
+            for (int from = 0; from < uuids.size(); from += DEFAULT_CHUNK_SIZE) {
+                List<UUID> chunk = uuids.subList(from, Math.min(from + DEFAULT_CHUNK_SIZE, uuids.size()));
+                try {
+                    Set<UUID> deleted = new HashSet<>(service.deleteByUuids(chunk));
+                    for (int i = 0; i < chunk.size(); i++) {
+                        UUID uuid = chunk.get(i);
+                        outcomes.add(new BulkResult.Outcome<>(from + i, uuid, deleted.contains(uuid), null));
+                        evict(entityName, uuid);
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("PluginBridge deleteByUuids of {} {} failed ({}), retrying items individually",
+                            chunk.size(), entityName, e.getMessage());
+                    for (int i = 0; i < chunk.size(); i++) {
+                        outcomes.add(deleteOne(service, from + i, chunk.get(i)));
+                    }
+                }
+            }
+
+            BulkResult<UUID> result = new BulkResult<>(outcomes);
+            log.info("PluginBridge bulk deleted {}: {}", entityName, result);
+            return result;
+        }
+
+        private BulkResult.Outcome<UUID> deleteOne(PluginDataService service, int index, UUID uuid) {
+            try {
+                boolean deleted = service.deleteByUuid(uuid);
+                evict(entityName, uuid);
+                return new BulkResult.Outcome<>(index, uuid, deleted, null);
+            } catch (RuntimeException e) {
+                log.warn("PluginBridge failed to delete {} {}: {}", entityName, uuid, e.getMessage());
+                return new BulkResult.Outcome<>(index, uuid, false, e);
+            }
+        }
+    }
+
+    // ========================
+    // BATCH SCOPE
+    // ========================
+
+    /**
+     * Request-scoped lookup batching, DataLoader style. Within the scope every entity is fetched
+     * at most once per UUID: lookups are queued per entity name and dispatched together through a
+     * single {@link PluginDataService#findByUuids} call the first time any of them is needed.
+     * Results (including misses) are remembered until the scope closes. Every lookup returns its
+     * own copy of the row, so modifying one (as {@link #join} does) does not leak into later
+     * lookups. Scopes are confined to the thread that opened them.
+     */
+    public class BatchScope implements AutoCloseable {
+
+        private final Map<String, Set<UUID>> pending = new HashMap<>();
+        private final Map<String, Map<UUID, Optional<Map<String, Object>>>> loaded = new HashMap<>();
+        private int depth;
+
+        private BatchScope() {}
+
+        void enqueue(String entityName, UUID uuid) {
+            if (uuid == null || loadedFor(entityName).containsKey(uuid)) return;
+            pending.computeIfAbsent(entityName, k -> new LinkedHashSet<>()).add(uuid);
+        }
+
+        Optional<Map<String, Object>> load(String entityName, UUID uuid) {
+            if (uuid == null) return Optional.empty();
+            Optional<Map<String, Object>> result = loadedFor(entityName).get(uuid);
+            if (result != null) return result;
+            enqueue(entityName, uuid);
+            dispatch(entityName);
+            return loadedFor(entityName).getOrDefault(uuid, Optional.empty());
+        }
+
+        List<Map<String, Object>> loadAll(String entityName, List<UUID> uuids) {
+            if (uuids == null || uuids.isEmpty()) return Collections.emptyList();
+            uuids.forEach(uuid -> enqueue(entityName, uuid));
+            dispatch(entityName);
+            Map<UUID, Optional<Map<String, Object>>> results = loadedFor(entityName);
+            List<Map<String, Object>> found = new ArrayList<>();
+            for (UUID uuid : new LinkedHashSet<>(uuids)) {
+                Optional<Map<String, Object>> result = results.get(uuid);
+                if (result != null) result.ifPresent(found::add);
+            }
+            return found;
+        }
+
+        /** Fetch everything queued for the entity in one call and record hits and misses. */
+        private void dispatch(String entityName) {
+            Set<UUID> queued = pending.remove(entityName);
+            if (queued == null || queued.isEmpty()) return;
+
+            Map<UUID, Optional<Map<String, Object>>> results = loadedFor(entityName);
+            List<Map<String, Object>> fetched = fetchAll(entityName, new ArrayList<>(queued), null);
+            log.debug("PluginBridge batch fetched {} of {} {} entities", fetched.size(), queued.size(), entityName);
+
+            for (Map<String, Object> entity : fetched) {
+                UUID uuid = uuidOf(entity);
+                if (uuid != null) results.put(uuid, Optional.of(entity));
+            }
+            for (UUID uuid : queued) {
+                results.putIfAbsent(uuid, Optional.empty());
+            }
+        }
+
+        void forget(String entityName, UUID uuid) {
+            if (uuid == null) return;
+            Map<UUID, Optional<Map<String, Object>>> results = loaded.get(entityName);
+            if (results != null) results.remove(uuid);
+        }
+
+        private Map<UUID, Optional<Map<String, Object>>> loadedFor(String entityName) {
+            return loaded.computeIfAbsent(entityName, k -> new HashMap<>());
+        }
+
+        @Override
+        public void close() {
+            if (--depth > 0) return;
+            pending.clear();
+            loaded.clear();
+            batchScope.remove();
         }
     }
 
@@ -182,11 +927,110 @@ public class PluginBridge {
     // INTERNAL
     // ========================
 
-    private Optional<PluginDataService> getService(String entityName) {
-        if (registry == null) {
-            log.warn("PluginBridge: registry not available, cannot access {}", entityName);
-            return Optional.empty();
+    /** Single lookup through the entity cache, when enabled. */
+    private Optional<Map<String, Object>> fetch(String entityName, UUID uuid) {
+        PluginEntityCache cache = entityCache;
+        if (cache != null) {
+            Optional<Map<String, Object>> cached = cache.get(entityName, uuid);
+            if (cached.isPresent()) return cached;
+        }
+        Optional<Map<String, Object>> result = getService(entityName).flatMap(s -> s.findByUuid(uuid));
+        if (cache != null) result.ifPresent(entity -> cache.put(entityName, uuid, entity));
+        return result;
+    }
+
+    /**
+     * Multi lookup through the entity cache, when enabled: cached entities are served directly
+     * and only the rest are requested, in one {@code findByUuids} call, in input order. With a
+     * {@code selection}, cached entities are projected and the rest fetched projected; projected
+     * rows are not cached.
+     */
+    private List<Map<String, Object>> fetchAll(String entityName, List<UUID> uuids, Set<String> selection) {
+        PluginEntityCache cache = entityCache;
+        if (cache == null || uuids == null || uuids.isEmpty()) {
+            return findByUuids(entityName, uuids, selection);
+        }
+
+        Map<UUID, Map<String, Object>> found = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            if (uuid == null || found.containsKey(uuid)) continue;
+            Optional<Map<String, Object>> cached = cache.get(entityName, uuid);
+            if (cached.isPresent()) {
+                found.put(uuid, selection != null ? EntityMapper.project(cached.get(), selection) : cached.get());
+            } else {
+                found.put(uuid, null);
+                missing.add(uuid);
+            }
         }
-        return registry.getServiceByEntity(entityName);
+
+        List<Map<String, Object>> fetched = missing.isEmpty() ? Collections.emptyList()
+                : findByUuids(entityName, missing, selection);
+        List<Map<String, Object>> unkeyed = new ArrayList<>();
+        for (Map<String, Object> entity : fetched) {
+            UUID uuid = uuidOf(entity);
+            if (uuid != null && found.containsKey(uuid)) {
+                found.put(uuid, entity);
+                if (selection == null) cache.put(entityName, uuid, entity);
+            } else {
+                unkeyed.add(entity);
+            }
+        }
+
+        List<Map<String, Object>> result = new ArrayList<>(found.size() + unkeyed.size());
+        for (Map<String, Object> entity : found.values()) {
+            if (entity != null) result.add(entity);
+        }
+        result.addAll(unkeyed);
+        return result;
+    }
+
+    private List<Map<String, Object>> findByUuids(String entityName, List<UUID> uuids, Set<String> selection) {
+        return getService(entityName)
+                .map(s -> selection != null ? s.findByUuids(uuids, selection) : s.findByUuids(uuids))
+                .orElse(Collections.emptyList());
+    }
+
+    /** The entity's UUID as serialized by {@link EntityMapper} (a String), or null. */
+    private static UUID uuidOf(Map<String, Object> entity) {
+        return toUuid(entity.get("uuid"));
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value == null) return null;
+        if (value instanceof UUID uuid) return uuid;
+        try {
+            return UUID.fromString(value.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /** The write-behind buffer of an entity; created under the lock {@link #shutdown} takes, so none outlives it. */
+    private WriteBehindBuffer writeBuffer(String entityName) {
+        WriteBehindBuffer buffer = writeBuffers.get(entityName);
+        if (buffer != null) return buffer;
+        synchronized (writeBuffers) {
+            if (shutDown) throw new IllegalStateException("PluginBridge is shut down, cannot queue " + entityName);
+            return writeBuffers.computeIfAbsent(entityName, name -> new WriteBehindBuffer(name,
+                    writeBehindCapacity, writeBehindBatchSize, writeBehindFlushInterval,
+                    writeBehindEnqueueTimeout, rows -> saveQueued(name, rows)));
+        }
+    }
+
+    /** Save a batch of queued writes; returns how many rows failed. */
+    private int saveQueued(String entityName, List<Map<String, Object>> rows) {
+        BulkResult<Map<String, Object>> result = saveAll(entityName)
+                .addAll(rows)
+                .chunkSize(writeBehindBatchSize)
+                .execute();
+        if (!result.isComplete()) {
+            log.error("PluginBridge write-behind dropped {} of {} {} rows", result.getFailureCount(), rows.size(), entityName);
+        }
+        return result.getFailureCount();
+    }
+
+    private Optional<PluginDataService> getService(String entityName) {
+        return entity(entityName).service();
     }
 }
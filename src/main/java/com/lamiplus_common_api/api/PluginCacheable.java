@@ -0,0 +1,27 @@
+package com.lamiplus_common_api.api;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a plugin service method as idempotent, so {@link ServiceProxy} may answer repeated calls
+ * with the same arguments from a bounded, per-tenant result cache instead of re-entering the plugin.
+ * Each service instance has its own cache per method. Meant for reference data (facility lists,
+ * code lookups), never for methods with side effects. Cached results are shared between callers
+ * and must not be mutated. Arguments are copied into the key; calls with arguments that cannot
+ * be copied (anything but values, collections, maps and arrays of them) are not memoized.
+ *
+ * Services that cannot be annotated can opt in with {@link ServiceProxy#registerCacheable}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PluginCacheable {
+
+    /** How long a cached result stays valid. */
+    long ttlSeconds() default 300;
+
+    /** Maximum number of cached results (across tenants) per method and service instance. */
+    int maxEntries() default 1000;
+}
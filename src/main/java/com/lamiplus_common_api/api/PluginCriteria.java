@@ -0,0 +1,291 @@
+package com.lamiplus_common_api.api;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.Temporal;
+import java.util.*;
+
+/**
+ * Filter for cross-plugin queries: a conjunction (AND) of simple conditions on entity fields.
+ *
+ * USAGE:
+ *
+ *   PluginCriteria criteria = PluginCriteria.create()
+ *           .eq("patientUuid", patientUuid)
+ *           .eqIgnoreCase("status", "active")
+ *           .in("type", List.of("PRIMARY", "SECONDARY"))
+ *           .range("visitDate", LocalDate.of(2024, 1, 1), null)
+ *           .isNull("dischargedAt");
+ *
+ *   bridge.find("Diagnosis").byCriteria(criteria);
+ *
+ * A criteria can be evaluated in two ways:
+ *   - {@link #toSpecification()} translates it into a JPA predicate, so a database-backed
+ *     {@link PluginDataService#findByCriteria} filters in SQL.
+ *   - {@link #matches(Map)} evaluates it against a row as produced by {@link EntityMapper}
+ *     (UUIDs, enums and dates as Strings); used by the default in-memory fallback.
+ *
+ * Values may be given in their entity type (UUID, enum, LocalDate, ...) or in their map form;
+ * both sides are converted as needed. Ranges are inclusive and either bound may be null.
+ * Fields may be nested JPA paths ("consultation.uuid") for the database translation.
+ */
+public final class PluginCriteria {
+
+    public enum Operator { EQ, EQ_IGNORE_CASE, IN, RANGE, IS_NULL, IS_NOT_NULL }
+
+    /**
+     * One condition. {@code value} holds the operand (the collection for IN, the lower bound for
+     * RANGE); {@code upper} is only used by RANGE.
+     */
+    public record Condition(String field, Operator operator, Object value, Object upper) {}
+
+    private final List<Condition> conditions = new ArrayList<>();
+
+    private PluginCriteria() {}
+
+    public static PluginCriteria create() {
+        return new PluginCriteria();
+    }
+
+    // ========================
+    // BUILDING
+    // ========================
+
+    /** Field equals value (a null value means {@link #isNull}) */
+    public PluginCriteria eq(String field, Object value) {
+        return value == null ? isNull(field) : add(field, Operator.EQ, value, null);
+    }
+
+    /** Field equals value, ignoring case; for String and enum fields */
+    public PluginCriteria eqIgnoreCase(String field, String value) {
+        return value == null ? isNull(field) : add(field, Operator.EQ_IGNORE_CASE, value, null);
+    }
+
+    /** Field equals any of the values; null values never match, and an empty collection matches nothing */
+    public PluginCriteria in(String field, Collection<?> values) {
+        return add(field, Operator.IN, values.stream().filter(Objects::nonNull).toList(), null);
+    }
+
+    /** {@code from <= field <= to}; a null bound is open */
+    public PluginCriteria range(String field, Object from, Object to) {
+        if (from == null && to == null) return isNotNull(field);
+        return add(field, Operator.RANGE, from, to);
+    }
+
+    public PluginCriteria isNull(String field) {
+        return add(field, Operator.IS_NULL, null, null);
+    }
+
+    public PluginCriteria isNotNull(String field) {
+        return add(field, Operator.IS_NOT_NULL, null, null);
+    }
+
+    private PluginCriteria add(String field, Operator operator, Object value, Object upper) {
+        conditions.add(new Condition(Objects.requireNonNull(field, "field"), operator, value, upper));
+        return this;
+    }
+
+    public List<Condition> getConditions() {
+        return Collections.unmodifiableList(conditions);
+    }
+
+    public boolean isEmpty() {
+        return conditions.isEmpty();
+    }
+
+    /** The plain equality conditions as a {@link PluginDataService#findByFields} argument. */
+    public Map<String, Object> getEqualities() {
+        Map<String, Object> equalities = new LinkedHashMap<>();
+        for (Condition condition : conditions) {
+            if (condition.operator() == Operator.EQ) equalities.putIfAbsent(condition.field(), condition.value());
+        }
+        return equalities;
+    }
+
+    // ========================
+    // IN-MEMORY EVALUATION
+    // ========================
+
+    /** True when the row satisfies every condition. */
+    public boolean matches(Map<String, Object> row) {
+        for (Condition condition : conditions) {
+            if (!matches(condition, row.get(condition.field()))) return false;
+        }
+        return true;
+    }
+
+    /** Keep the rows that satisfy every condition. */
+    public List<Map<String, Object>> filter(List<Map<String, Object>> rows) {
+        if (conditions.isEmpty()) return rows;
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map<String, Object> row : rows) {
+            if (matches(row)) result.add(row);
+        }
+        return result;
+    }
+
+    private static boolean matches(Condition condition, Object actual) {
+        return switch (condition.operator()) {
+            case IS_NULL -> actual == null;
+            case IS_NOT_NULL -> actual != null;
+            case EQ -> actual != null && compare(actual, condition.value()) == 0;
+            case EQ_IGNORE_CASE -> actual != null && text(actual).equalsIgnoreCase((String) condition.value());
+            case IN -> {
+                if (actual == null) yield false;
+                for (Object candidate : (Collection<?>) condition.value()) {
+                    if (candidate != null && compare(actual, candidate) == 0) yield true;
+                }
+                yield false;
+            }
+            case RANGE -> actual != null
+                    && (condition.value() == null || compare(actual, condition.value()) >= 0)
+                    && (condition.upper() == null || compare(actual, condition.upper()) <= 0);
+        };
+    }
+
+    /**
+     * Compare a row value against an operand. Same-class values compare directly; numbers compare
+     * numerically; a mapped (String) value is parsed to the operand's temporal type; anything else
+     * falls back to comparing the map forms.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compare(Object actual, Object expected) {
+        if (actual.getClass() == expected.getClass() && actual instanceof Comparable comparable) {
+            return comparable.compareTo(expected);
+        }
+        if (actual instanceof Number a && expected instanceof Number b) {
+            return compareNumbers(a, b);
+        }
+        if (actual instanceof String s && expected instanceof Temporal) {
+            Comparable parsed = parseTemporal(s, expected.getClass());
+            if (parsed != null) return parsed.compareTo(expected);
+        }
+        return text(actual).compareTo(text(expected));
+    }
+
+    private static int compareNumbers(Number a, Number b) {
+        if (isIntegral(a) && isIntegral(b)) return Long.compare(a.longValue(), b.longValue());
+        return Double.compare(a.doubleValue(), b.doubleValue());
+    }
+
+    private static boolean isIntegral(Number n) {
+        return n instanceof Long || n instanceof Integer || n instanceof Short || n instanceof Byte;
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static Comparable parseTemporal(String value, Class<?> type) {
+        try {
+            if (type == LocalDate.class) return LocalDate.parse(value);
+            if (type == LocalDateTime.class) return LocalDateTime.parse(value);
+            if (type == LocalTime.class) return LocalTime.parse(value);
+        } catch (RuntimeException e) {
+            // not a date in the expected format; compare as text
+        }
+        return null;
+    }
+
+    /** The {@link EntityMapper} map form of a value. */
+    private static String text(Object value) {
+        return value instanceof Enum<?> e ? e.name() : value.toString();
+    }
+
+    // ========================
+    // JPA TRANSLATION
+    // ========================
+
+    /**
+     * Translate into a Spring Data {@link Specification}, for repositories implementing
+     * {@code JpaSpecificationExecutor} (every {@link PluginTenantAwareRepository} does).
+     * Operands are converted to the attribute's Java type.
+     */
+    public <T> Specification<T> toSpecification() {
+        List<Condition> snapshot = List.copyOf(conditions);
+        return (root, query, cb) -> {
+            Predicate[] predicates = new Predicate[snapshot.size()];
+            for (int i = 0; i < predicates.length; i++) {
+                predicates[i] = toPredicate(snapshot.get(i), root, cb);
+            }
+            return cb.and(predicates);
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate toPredicate(Condition condition, Root<?> root, CriteriaBuilder cb) {
+        Path<Object> path = path(root, condition.field());
+        Class<?> type = path.getJavaType();
+
+        switch (condition.operator()) {
+            case IS_NULL:
+                return cb.isNull(path);
+            case IS_NOT_NULL:
+                return cb.isNotNull(path);
+            case EQ:
+                return cb.equal(path, convert(condition.value(), type, condition.field()));
+            case EQ_IGNORE_CASE: {
+                String value = (String) condition.value();
+                if (type.isEnum()) {
+                    for (Object constant : type.getEnumConstants()) {
+                        if (((Enum<?>) constant).name().equalsIgnoreCase(value)) return cb.equal(path, constant);
+                    }
+                    return cb.disjunction();
+                }
+                if (type != String.class) {
+                    return cb.equal(path, convert(value, type, condition.field()));
+                }
+                return cb.equal(cb.lower(path.as(String.class)), value.toLowerCase(Locale.ROOT));
+            }
+            case IN: {
+                Collection<?> values = (Collection<?>) condition.value();
+                if (values.isEmpty()) return cb.disjunction();
+                CriteriaBuilder.In<Object> in = cb.in(path);
+                for (Object value : values) in.value(convert(value, type, condition.field()));
+                return in;
+            }
+            case RANGE: {
+                Expression<Comparable> comparable = (Expression) path;
+                List<Predicate> bounds = new ArrayList<>(2);
+                if (condition.value() != null) {
+                    bounds.add(cb.greaterThanOrEqualTo(comparable,
+                            (Comparable) convert(condition.value(), type, condition.field())));
+                }
+                if (condition.upper() != null) {
+                    bounds.add(cb.lessThanOrEqualTo(comparable,
+                            (Comparable) convert(condition.upper(), type, condition.field())));
+                }
+                return cb.and(bounds.toArray(new Predicate[0]));
+            }
+            default:
+                throw new IllegalStateException("Unhandled operator " + condition.operator());
+        }
+    }
+
+    private static Path<Object> path(Root<?> root, String field) {
+        Path<Object> path = null;
+        for (String part : field.split("\\.")) {
+            path = path == null ? root.get(part) : path.get(part);
+        }
+        return path;
+    }
+
+    private static Object convert(Object value, Class<?> type, String field) {
+        Object converted = EntityMapper.deserializeValue(value, type);
+        if (converted == null) {
+            throw new IllegalArgumentException("Cannot use '" + value + "' as " + type.getSimpleName()
+                    + " for field '" + field + "'");
+        }
+        return converted;
+    }
+
+    @Override
+    public String toString() {
+        return "PluginCriteria" + conditions;
+    }
+}
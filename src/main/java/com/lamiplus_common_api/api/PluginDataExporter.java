@@ -0,0 +1,394 @@
+package com.lamiplus_common_api.api;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.lamiplus_common_api.common.Utils;
+import com.lamiplus_common_api.exception.PluginServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Streams a plugin entity to NDJSON or CSV without holding the extract in memory.
+ *
+ * Rows are fetched page by page through {@link PluginDataService#findPage} (keyset pages where the
+ * service supports them) under the exported tenant's context, and written through a buffered NIO
+ * channel as they arrive, so heap use is bounded by one page whatever the table size.
+ *
+ * USAGE:
+ *   exporter.export("Diagnosis", tenantId, Format.CSV,
+ *           List.of("uuid", "patientUuid", "status", "visitDate"), Path.of("/exports/diagnosis.csv"));
+ *
+ *   // One file per tenant, several tenants at a time; whole rows
+ *   Map<String, ExportResult> results =
+ *       exporter.exportTenants("Diagnosis", tenantIds, Format.NDJSON, Path.of("/exports"));
+ *
+ * The field list is the projection: each line carries exactly those fields, in that order, with
+ * null for fields a row lacks. Without one, NDJSON writes each row as the service returns it, i.e.
+ * the fields {@link EntityMapper} derives for the entity, and CSV takes its header from the
+ * {@link CompactRowMap.Schema schema} of the first row; rows that are not compact need an explicit
+ * list, and an export without rows and without a list is an empty file.
+ * File exports are written to a {@code .part} file and moved into place when complete.
+ */
+@Slf4j
+@Component
+public class PluginDataExporter {
+
+    public enum Format {
+        NDJSON("ndjson"),
+        CSV("csv");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    /** Outcome of one export; {@code error} is set when it failed, {@code file} when written to disk. */
+    public record ExportResult(String entityName, String tenantId, Path file, long rows, long bytes,
+                               Duration elapsed, Throwable error) {
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+    }
+
+    private static final int WRITE_BUFFER_BYTES = 64 * 1024;
+
+    private final PluginBridge bridge;
+    private final ObjectWriter jsonWriter;
+    private int pageSize = PluginBridge.DEFAULT_FETCH_SIZE;
+    private int parallelism = 4;
+
+    public PluginDataExporter(PluginBridge bridge, ObjectMapper objectMapper) {
+        this.bridge = bridge;
+        // One object per line, flushed by the channel buffer rather than after every row
+        this.jsonWriter = objectMapper.writer()
+                .without(SerializationFeature.INDENT_OUTPUT)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * Rows per page, and how many tenants {@link #exportTenants} exports at once. Every running
+     * export holds a database connection while it reads a page, so keep parallelism well below
+     * the pool size.
+     */
+    @Autowired
+    public void configure(@Value("${plugin.export.page-size:500}") int pageSize,
+                          @Value("${plugin.export.parallelism:4}") int parallelism) {
+        if (pageSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("plugin.export.page-size and parallelism must be at least 1");
+        }
+        this.pageSize = pageSize;
+        this.parallelism = parallelism;
+    }
+
+    // ========================
+    // EXPORT
+    // ========================
+
+    /** Export one tenant's whole rows to a file. */
+    public ExportResult export(String entityName, String tenantId, Format format, Path file) throws IOException {
+        return export(entityName, tenantId, format, null, file);
+    }
+
+    /** Export one tenant's rows to a file, replacing it only once the export has completed. */
+    public ExportResult export(String entityName, String tenantId, Format format, List<String> fields, Path file)
+            throws IOException {
+        long started = System.nanoTime();
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+
+        long[] counts;
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            counts = write(entityName, tenantId, format, fields, channel);
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        return new ExportResult(entityName, tenantId, file, counts[0], counts[1],
+                Duration.ofNanos(System.nanoTime() - started), null);
+    }
+
+    /** Export one tenant's whole rows to a stream. */
+    public ExportResult export(String entityName, String tenantId, Format format, OutputStream out) throws IOException {
+        return export(entityName, tenantId, format, null, out);
+    }
+
+    /** Export one tenant's rows to a stream; the stream is flushed but not closed. */
+    public ExportResult export(String entityName, String tenantId, Format format, List<String> fields,
+                               OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        long[] counts = write(entityName, tenantId, format, fields, Channels.newChannel(out));
+        out.flush();
+        return new ExportResult(entityName, tenantId, null, counts[0], counts[1],
+                Duration.ofNanos(System.nanoTime() - started), null);
+    }
+
+    /**
+     * Export each tenant to {@code <entity>-<tenant>.<ext>} in {@code directory}, running up to
+     * {@code parallelism} exports at once on virtual threads. A failed tenant does not stop the
+     * others; its result carries the error. Results keep the order of {@code tenantIds}.
+     */
+    public Map<String, ExportResult> exportTenants(String entityName, Collection<String> tenantIds,
+                                                   Format format, List<String> fields, Path directory)
+            throws IOException {
+        Files.createDirectories(directory);
+        Semaphore permits = new Semaphore(parallelism);
+        Map<String, Future<ExportResult>> running = new LinkedHashMap<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String tenantId : new LinkedHashSet<>(tenantIds)) {
+                Path file = directory.resolve(fileName(entityName, tenantId, format));
+                running.put(tenantId, executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return export(entityName, tenantId, format, fields, file);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+
+            Map<String, ExportResult> results = new LinkedHashMap<>();
+            running.forEach((tenantId, future) -> results.put(tenantId, await(entityName, tenantId, future)));
+            return results;
+        }
+    }
+
+    /** {@link #exportTenants(String, Collection, Format, List, Path)} with whole rows. */
+    public Map<String, ExportResult> exportTenants(String entityName, Collection<String> tenantIds,
+                                                   Format format, Path directory) throws IOException {
+        return exportTenants(entityName, tenantIds, format, null, directory);
+    }
+
+    private ExportResult await(String entityName, String tenantId, Future<ExportResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            return new ExportResult(entityName, tenantId, null, 0, 0, Duration.ZERO, e);
+        } catch (ExecutionException e) {
+            log.error("Export of {} for tenant {} failed", entityName, tenantId, e.getCause());
+            return new ExportResult(entityName, tenantId, null, 0, 0, Duration.ZERO, e.getCause());
+        }
+    }
+
+    // ========================
+    // WRITING
+    // ========================
+
+    /** Walk the pages and write them; returns {rows, bytes}. */
+    private long[] write(String entityName, String tenantId, Format format, List<String> fields,
+                         WritableByteChannel channel) throws IOException {
+        PluginDataService service = bridge.entity(entityName).service()
+                .orElseThrow(() -> new PluginServiceUnavailableException(entityName));
+
+        ChannelOutput out = new ChannelOutput(channel);
+        RowWriter writer = format == Format.CSV
+                ? new CsvRowWriter(out, fields == null || fields.isEmpty() ? null : List.copyOf(fields))
+                : new NdjsonRowWriter(out, fields == null ? null : List.copyOf(fields));
+        long rows = 0;
+        String cursor = null;
+        do {
+            CursorPage page = fetchPage(service, tenantId, cursor);
+            for (Map<String, Object> row : page.getItems()) {
+                writer.write(row);
+                rows++;
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        writer.finish();
+
+        log.debug("Exported {} {} rows for tenant {} ({} bytes)", rows, entityName, tenantId, out.written);
+        return new long[]{rows, out.written};
+    }
+
+    private CursorPage fetchPage(PluginDataService service, String tenantId, String cursor) throws IOException {
+        try {
+            return Utils.withTenantContext(tenantId, () -> service.findPage(tenantId, cursor, pageSize)).call();
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("Fetching a page of " + service.getEntityName() + " failed", e);
+        }
+    }
+
+    static String fileName(String entityName, String tenantId, Format format) {
+        return (entityName + "-" + tenantId).replaceAll("[^A-Za-z0-9._-]", "_") + "." + format.getExtension();
+    }
+
+    private interface RowWriter {
+        void write(Map<String, Object> row) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final OutputStream out;
+        private final List<String> fields;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(OutputStream out, List<String> fields) throws IOException {
+            this.out = out;
+            this.fields = fields;
+            this.generator = jsonWriter.createGenerator(out);
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            if (fields != null) {
+                Map<String, Object> projected = new LinkedHashMap<>();
+                for (String field : fields) projected.put(field, row.get(field));
+                row = projected;
+            }
+            jsonWriter.writeValue(generator, row);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+            out.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV: comma separated, CRLF line ends, fields quoted when they need it. Without
+     * columns the header is the first row's schema, written with that row.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer out;
+        private List<String> columns;
+
+        CsvRowWriter(OutputStream out, List<String> columns) throws IOException {
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.columns = columns;
+            if (columns != null) writeLine(columns);
+        }
+
+        @Override
+        public void write(Map<String, Object> row) throws IOException {
+            if (columns == null) {
+                if (!(row instanceof CompactRowMap compact)) {
+                    throw new IllegalArgumentException("CSV export of " + row.getClass().getSimpleName()
+                            + " rows needs an explicit field list for its header");
+                }
+                columns = compact.getSchema().getFieldNames();
+                writeLine(columns);
+            }
+            List<Object> values = new ArrayList<>(columns.size());
+            for (String column : columns) values.add(row.get(column));
+            writeLine(values);
+        }
+
+        private void writeLine(List<?> values) throws IOException {
+            for (int i = 0; i < values.size(); i++) {
+                if (i > 0) out.write(',');
+                Object value = values.get(i);
+                if (value != null) out.write(escape(value.toString()));
+            }
+            out.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Collects writes in a direct buffer and hands them to the channel {@value #WRITE_BUFFER_BYTES}
+     * bytes at a time. Closing flushes; the channel itself is left open for its owner.
+     */
+    private static final class ChannelOutput extends OutputStream {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES);
+        private long written;
+
+        ChannelOutput(WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) drain();
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (!buffer.hasRemaining()) drain();
+                int chunk = Math.min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        @Override
+        public void close() throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
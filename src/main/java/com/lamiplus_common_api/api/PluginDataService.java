@@ -2,12 +2,19 @@ package com.lamiplus_common_api.api;
 
 
 
+import com.lamiplus_common_api.common.Utils;
+
+import java.time.Instant;
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Generic CRUD interface for cross-plugin data access.
  * All plugins implement this for their entities.
  * Uses Map<String, Object> for classloader compatibility.
+ * Rows may be any mutable Map; {@link CompactRowMap} (what {@link EntityMapper#toMap} returns)
+ * keeps large result lists lean.
  */
 public interface PluginDataService {
 
@@ -48,6 +55,161 @@ public interface PluginDataService {
      */
     List<Map<String, Object>> findAll(String tenantId, int page, int size);
 
+    /**
+     * Cursor-paginated walk over a tenant's entities: pass {@code null} for the first page, then
+     * each page's {@link CursorPage#getNextCursor()}.
+     * Default: offset paging over {@link #findAll} — override to seek on {@code id} with
+     * {@link CursorPage#keysetCursor} so deep pages stay as cheap as the first.
+     */
+    default CursorPage findPage(String tenantId, String cursor, int size) {
+        int page = CursorPage.page(cursor);
+        List<Map<String, Object>> items = findAll(tenantId, page, size);
+        // A page larger than requested means paging is ignored and everything was returned
+        return items.size() == size
+                ? CursorPage.of(items, CursorPage.offsetCursor(page + 1))
+                : CursorPage.last(items);
+    }
+
+    /**
+     * Stream all entities of a tenant without materializing them, fetching {@code fetchSize} rows
+     * at a time. The stream may hold a database cursor: close it (try-with-resources).
+     * Default: walks {@link #findPage} page by page — override to stream from a real cursor.
+     */
+    default Stream<Map<String, Object>> streamByTenantId(String tenantId, int fetchSize) {
+        if (fetchSize < 1) throw new IllegalArgumentException("fetchSize must be at least 1");
+        return PagedSpliterator.stream(cursor -> findPage(tenantId, cursor, fetchSize));
+    }
+
+    /**
+     * Incremental change feed: a tenant's rows with {@code updatedAt} at or after
+     * {@code watermark} (null = from the beginning), oldest first, at most {@code limit} of them.
+     * Archived rows come back as tombstones. Continue with {@link #findModifiedAfter}.
+     */
+    default ChangeBatch findModifiedSince(String tenantId, Instant watermark, int limit) {
+        return findModifiedAfter(tenantId, ChangeBatch.startingAt(watermark), limit);
+    }
+
+    /**
+     * Continue a change feed after {@link ChangeBatch#getResumeToken()} (null = from the beginning).
+     * Default: filters and sorts {@link #findByTenantId} in memory, so it only reports archived
+     * rows that findByTenantId returns — override with a query ordered by {@code (updatedAt, id)}.
+     */
+    default ChangeBatch findModifiedAfter(String tenantId, String resumeToken, int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be at least 1");
+        ChangeBatch.Position after = ChangeBatch.position(resumeToken);
+        List<Map<String, Object>> rows = findByTenantId(tenantId).stream()
+                .filter(row -> ChangeBatch.isAfter(row, after))
+                .sorted(ChangeBatch.FEED_ORDER)
+                .limit(limit + 1L)
+                .toList();
+        return ChangeBatch.of(rows, limit, resumeToken);
+    }
+
+    /**
+     * Count the current tenant's entities matching the criteria.
+     * Default: walks the matches like the aggregates below, so {@code count(c)} equals the sum of
+     * {@code countBy(f, c)} — override with a COUNT query.
+     */
+    default long count(PluginCriteria criteria) {
+        long[] count = new long[1];
+        forEachValue("uuid", criteria, value -> count[0]++);
+        return count[0];
+    }
+
+    /**
+     * Whether any entity matches the criteria.
+     * Default: {@code count(criteria) > 0} — override with an EXISTS / LIMIT 1 query.
+     */
+    default boolean exists(PluginCriteria criteria) {
+        return count(criteria) > 0;
+    }
+
+    // ============ AGGREGATES ============
+    // Keys and values are serialized like EntityMapper.toMap (enums and dates as Strings), and
+    // cover the current tenant's entities only. Defaults aggregate in memory: over the equality
+    // matches of findByCriteria when the criteria has some, otherwise over streamByTenantId for
+    // the current tenant — override with GROUP BY / MIN / MAX queries (AbstractJpaPluginDataService
+    // does).
+
+    /** Number of the current tenant's entities per distinct value of {@code field}, largest group first. */
+    default Map<Object, Long> countBy(String field) {
+        return countBy(field, PluginCriteria.create());
+    }
+
+    /** {@link #countBy(String)} over the entities matching the criteria. */
+    default Map<Object, Long> countBy(String field, PluginCriteria criteria) {
+        Map<Object, Long> counts = new HashMap<>();
+        forEachValue(field, criteria, value -> counts.merge(value, 1L, Long::sum));
+        Map<Object, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<Object, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+
+    /** Smallest non-null value of {@code field} (e.g. the earliest date) among the matches. */
+    default Optional<Object> min(String field, PluginCriteria criteria) {
+        Object[] min = new Object[1];
+        forEachValue(field, criteria, value -> {
+            if (value != null && (min[0] == null || PluginCriteria.compare(value, min[0]) < 0)) min[0] = value;
+        });
+        return Optional.ofNullable(min[0]);
+    }
+
+    /** Largest non-null value of {@code field} (e.g. the latest date) among the matches. */
+    default Optional<Object> max(String field, PluginCriteria criteria) {
+        Object[] max = new Object[1];
+        forEachValue(field, criteria, value -> {
+            if (value != null && (max[0] == null || PluginCriteria.compare(value, max[0]) > 0)) max[0] = value;
+        });
+        return Optional.ofNullable(max[0]);
+    }
+
+    /** Feed {@code field} of each of the current tenant's matches to {@code action}, for the aggregate defaults. */
+    private void forEachValue(String field, PluginCriteria criteria, Consumer<Object> action) {
+        String tenantId = Utils.getTenantIdOrNull();
+        if (criteria.getEqualities().isEmpty()) {
+            if (tenantId == null) {
+                throw new IllegalStateException("Aggregating " + getEntityName()
+                        + " without an equality condition needs a tenant in context");
+            }
+            try (Stream<Map<String, Object>> rows = streamByTenantId(tenantId, PluginBridge.DEFAULT_FETCH_SIZE)) {
+                rows.filter(criteria::matches).forEach(row -> action.accept(row.get(field)));
+            }
+            return;
+        }
+        Set<String> fields = "tenantId".equals(field) ? Set.of(field) : Set.of(field, "tenantId");
+        for (Map<String, Object> row : findByCriteria(criteria, fields)) {
+            // findByField is not tenant-scoped in general; drop other tenants' rows here
+            if (tenantId != null && row.get("tenantId") != null && !tenantId.equals(row.get("tenantId"))) continue;
+            action.accept(row.get(field));
+        }
+    }
+
+    // ============ PROJECTIONS ============
+    // Same lookups returning only the named fields. Defaults fetch whole entities and trim them;
+    // override to select just those columns (e.g. with EntityMapper.toMapProjected(entity, fields)).
+
+    default Optional<Map<String, Object>> findByUuid(UUID uuid, Set<String> fields) {
+        return findByUuid(uuid).map(row -> EntityMapper.project(row, fields));
+    }
+
+    default List<Map<String, Object>> findByUuids(List<UUID> uuids, Set<String> fields) {
+        return EntityMapper.project(findByUuids(uuids), fields);
+    }
+
+    default List<Map<String, Object>> findByPatientUuid(UUID patientUuid, Set<String> fields) {
+        return EntityMapper.project(findByPatientUuid(patientUuid), fields);
+    }
+
+    default List<Map<String, Object>> findByField(String fieldName, Object value, Set<String> fields) {
+        return EntityMapper.project(findByField(fieldName, value), fields);
+    }
+
+    default List<Map<String, Object>> findByCriteria(PluginCriteria criteria, Set<String> fields) {
+        return EntityMapper.project(findByCriteria(criteria), fields);
+    }
+
     // ============ WRITE OPERATIONS ============
 
     /**
@@ -66,6 +228,18 @@ public interface PluginDataService {
      */
     boolean deleteByUuid(UUID uuid);
 
+    /**
+     * Delete multiple entities by UUID, returning the UUIDs that were actually deleted.
+     * Default: calls {@link #deleteByUuid} for each — override with a single IN delete.
+     */
+    default List<UUID> deleteByUuids(List<UUID> uuids) {
+        List<UUID> deleted = new ArrayList<>();
+        for (UUID uuid : uuids) {
+            if (deleteByUuid(uuid)) deleted.add(uuid);
+        }
+        return deleted;
+    }
+
     // ============ CUSTOM QUERY ============
 
     /**
@@ -80,5 +254,27 @@ public interface PluginDataService {
      */
     List<Map<String, Object>> findByFields(Map<String, Object> criteria);
 
+    /**
+     * Find by a {@link PluginCriteria} filter.
+     * Default: fetches the equality conditions via {@link #findByField} / {@link #findByFields} and
+     * applies the rest in memory — override (e.g. with {@link PluginCriteria#toSpecification()}) to
+     * filter in the database.
+     */
+    default List<Map<String, Object>> findByCriteria(PluginCriteria criteria) {
+        Map<String, Object> equalities = criteria.getEqualities();
+        if (equalities.isEmpty()) {
+            throw new UnsupportedOperationException("findByCriteria() without an equality condition is not "
+                    + "implemented for " + getEntityName() + " in " + getClass().getSimpleName());
+        }
+        List<Map<String, Object>> candidates;
+        if (equalities.size() == 1) {
+            Map.Entry<String, Object> only = equalities.entrySet().iterator().next();
+            candidates = findByField(only.getKey(), only.getValue());
+        } else {
+            candidates = findByFields(equalities);
+        }
+        return criteria.filter(candidates);
+    }
+
     Optional <Object> findByObjectUuid(UUID uuid);
 }
\ No newline at end of file
@@ -42,4 +42,13 @@ public interface PluginDataServiceRegistry {
      * Check if service exists in specific plugin
      */
     boolean hasService(String pluginId, String entityName);
+
+    /**
+     * Counter that changes whenever services are registered or removed (plugin installed,
+     * upgraded or unloaded). Callers may cache lookups for as long as it is unchanged.
+     * Default: -1, meaning changes are not tracked and lookups must not be cached.
+     */
+    default long getGeneration() {
+        return -1;
+    }
 }
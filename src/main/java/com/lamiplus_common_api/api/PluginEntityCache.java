@@ -0,0 +1,85 @@
+package com.lamiplus_common_api.api;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lamiplus_common_api.common.Utils;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Read-through cache of entity maps used by {@link PluginBridge}.
+ *
+ * Entries are keyed by (entity name, UUID) and remember the tenant they were read for; a lookup
+ * from any other tenant is a miss, so cached rows never cross tenants. Eviction is Caffeine's
+ * W-TinyLFU, bounded by an estimate of the retained heap, plus a time-to-live as a safety net for
+ * writes that bypass the bridge. Maps are copied on the way in and out, so callers may mutate what
+ * they get back.
+ */
+final class PluginEntityCache {
+
+    private final Cache<Key, Entry> cache;
+
+    PluginEntityCache(Duration ttl, long maxBytes) {
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumWeight(maxBytes)
+                .weigher((Key key, Entry entry) -> entry.weight)
+                .build();
+    }
+
+    Optional<Map<String, Object>> get(String entityName, UUID uuid) {
+        String tenantId = Utils.getTenantIdOrNull();
+        if (tenantId == null || uuid == null) return Optional.empty();
+        Entry entry = cache.getIfPresent(new Key(entityName, uuid));
+        if (entry == null || !tenantId.equals(entry.tenantId)) return Optional.empty();
+        return Optional.of(CompactRowMap.copyOf(entry.data));
+    }
+
+    void put(String entityName, UUID uuid, Map<String, Object> data) {
+        String tenantId = Utils.getTenantIdOrNull();
+        if (tenantId == null || uuid == null || data == null) return;
+        Map<String, Object> copy = CompactRowMap.copyOf(data);
+        cache.put(new Key(entityName, uuid), new Entry(tenantId, copy, weigh(copy)));
+    }
+
+    void invalidate(String entityName, UUID uuid) {
+        if (uuid != null) cache.invalidate(new Key(entityName, uuid));
+    }
+
+    void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /** Rough retained size of a row: map and entry overhead plus string payloads. */
+    private static int weigh(Map<String, Object> data) {
+        long bytes = 96;
+        int perField = data instanceof CompactRowMap ? 8 : 48;
+        for (Object value : data.values()) {
+            bytes += perField;
+            if (value instanceof CharSequence chars) {
+                bytes += 40 + 2L * chars.length();
+            } else if (value != null) {
+                bytes += 24;
+            }
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private record Key(String entityName, UUID uuid) {}
+
+    private static final class Entry {
+        final String tenantId;
+        final Map<String, Object> data;
+        final int weight;
+
+        Entry(String tenantId, Map<String, Object> data, int weight) {
+            this.tenantId = Objects.requireNonNull(tenantId);
+            this.data = data;
+            this.weight = weight;
+        }
+    }
+}
@@ -1,10 +1,11 @@
 package com.lamiplus_common_api.api;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.repository.NoRepositoryBean;
 
 
 @NoRepositoryBean
-public interface PluginTenantAwareRepository<T, ID> extends JpaRepository<T, ID> {
+public interface PluginTenantAwareRepository<T, ID> extends JpaRepository<T, ID>, JpaSpecificationExecutor<T> {
 
 }
\ No newline at end of file
@@ -0,0 +1,118 @@
+package com.lamiplus_common_api.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Wiring of a caller-side contract interface onto the public methods of a service class,
+ * computed once per (service class, contract) pair and reused by {@link ServiceProxy#bind}.
+ *
+ * Each abstract contract method is matched by name, arity and parameter compatibility and
+ * stored as a pre-adapted {@link MethodHandle}; a bound call is a map lookup plus an exact
+ * handle invocation, run through the owning proxy's circuit breaker and meters. Default contract methods without a counterpart on the service run their
+ * own body. Contracts must only use types visible to both classloaders (JDK types, this API,
+ * {@code Map}-shaped data); a method that cannot be matched fails the binding up front.
+ */
+final class ServiceBinding {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final Class<?> contract;
+    private final Map<Method, MethodHandle> handles;
+
+    private ServiceBinding(Class<?> contract, Map<Method, MethodHandle> handles) {
+        this.contract = contract;
+        this.handles = handles;
+    }
+
+    static ServiceBinding create(Class<?> serviceClass, Class<?> contract) {
+        Map<Method, MethodHandle> handles = new HashMap<>();
+        List<String> unmatched = new ArrayList<>();
+
+        for (Method method : contract.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) continue;
+
+            MethodHandle handle = match(serviceClass, method);
+            if (handle != null) {
+                handles.put(method, handle);
+            } else if (!method.isDefault()) {
+                unmatched.add(method.getName() + "/" + method.getParameterCount());
+            }
+        }
+
+        if (!unmatched.isEmpty()) {
+            throw new IllegalArgumentException("Cannot bind " + contract.getName() + " to "
+                    + serviceClass.getName() + ": no compatible method for " + unmatched);
+        }
+        return new ServiceBinding(contract, Collections.unmodifiableMap(handles));
+    }
+
+    Object newInstance(ServiceProxy target, String serviceName) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            MethodHandle handle = handles.get(method);
+            if (handle != null) {
+                return target.invokeBound(method.getName(), handle, args != null ? args : NO_ARGS);
+            }
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> contract.getSimpleName() + "->" + serviceName;
+                };
+            }
+            return InvocationHandler.invokeDefault(proxy, method, args);
+        };
+        return Proxy.newProxyInstance(contract.getClassLoader(), new Class<?>[]{contract}, handler);
+    }
+
+    /**
+     * Find the service method implementing {@code method} and adapt it to the generic
+     * {@code (Object, Object[])Object} shape. Exact parameter matches win over compatible ones.
+     */
+    private static MethodHandle match(Class<?> serviceClass, Method method) {
+        Method candidate = null;
+        try {
+            candidate = serviceClass.getMethod(method.getName(), method.getParameterTypes());
+        } catch (NoSuchMethodException e) {
+            for (Method m : serviceClass.getMethods()) {
+                if (m.getName().equals(method.getName())
+                        && m.getParameterCount() == method.getParameterCount()
+                        && parametersCompatible(m.getParameterTypes(), method.getParameterTypes())) {
+                    candidate = m;
+                    break;
+                }
+            }
+        }
+        if (candidate == null) return null;
+
+        int arity = method.getParameterCount();
+        MethodType contractType = MethodType.methodType(method.getReturnType(), method.getParameterTypes())
+                .insertParameterTypes(0, Object.class);
+        try {
+            return ServiceMethod.unreflect(candidate)
+                    .asFixedArity()
+                    .asType(contractType)
+                    .asType(MethodType.genericMethodType(arity + 1))
+                    .asSpreader(Object[].class, arity);
+        } catch (IllegalAccessException | WrongMethodTypeException e) {
+            return null;
+        }
+    }
+
+    private static boolean parametersCompatible(Class<?>[] targetTypes, Class<?>[] contractTypes) {
+        for (int i = 0; i < targetTypes.length; i++) {
+            if (!ServiceMethodCache.isCompatible(targetTypes[i], contractTypes[i])) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,111 @@
+package com.lamiplus_common_api.api;
+
+import com.lamiplus_common_api.common.Utils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs asynchronous cross-plugin calls on virtual threads.
+ *
+ * Every task is bounded by a per-service bulkhead (a semaphore keyed by service name, shared by
+ * all proxies for that service) and an optional deadline. When the deadline passes the returned
+ * future fails with {@link TimeoutException} and the running task is interrupted; its bulkhead
+ * permit is only released once the task has actually finished. A task whose deadline passes
+ * before it starts never runs, and its permit is released at once.
+ *
+ * Interrupting a virtual thread blocked in socket I/O closes the socket, so a timed-out call that
+ * was in the middle of a JDBC query leaves a broken connection behind; the pool discards it when
+ * validating on the next borrow. Keep deadlines well above normal query times.
+ */
+@Slf4j
+final class ServiceCallExecutor {
+
+    static final int DEFAULT_MAX_CONCURRENT_CALLS = 32;
+
+    private static final ExecutorService EXECUTOR = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("plugin-call-", 0).factory());
+
+    private static final Map<String, Semaphore> BULKHEADS = new ConcurrentHashMap<>();
+
+    private ServiceCallExecutor() {}
+
+    /** Shared virtual-thread executor, also used by {@link PluginBridge} fan-out queries. */
+    static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    static void setMaxConcurrentCalls(String serviceName, int maxConcurrentCalls) {
+        if (maxConcurrentCalls < 1) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be at least 1");
+        }
+        BULKHEADS.put(serviceName, new Semaphore(maxConcurrentCalls));
+    }
+
+    /** Free bulkhead permits of a service, for monitoring. */
+    static int availablePermits(String serviceName) {
+        Semaphore permits = BULKHEADS.get(serviceName);
+        return permits != null ? permits.availablePermits() : DEFAULT_MAX_CONCURRENT_CALLS;
+    }
+
+    static <T> CompletableFuture<T> submit(String serviceName, Duration timeout, Callable<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Semaphore permits = BULKHEADS.computeIfAbsent(serviceName,
+                name -> new Semaphore(DEFAULT_MAX_CONCURRENT_CALLS));
+        if (!permits.tryAcquire()) {
+            log.warn("Bulkhead full for service {}, rejecting call", serviceName);
+            result.completeExceptionally(new RejectedExecutionException(
+                    "Too many concurrent calls to service " + serviceName));
+            return result;
+        }
+
+        Callable<T> task = Utils.withTenantContext(call);
+        // Whoever claims this first owns the permit: the task when it starts, or the timeout
+        // handler when the deadline passes before the task got to run
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<?> running;
+        try {
+            running = EXECUTOR.submit(() -> {
+                if (!claimed.compareAndSet(false, true)) return;
+                try {
+                    result.complete(task.call());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        if (timeout != null) {
+            result.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS).whenComplete((value, error) -> {
+                if (error instanceof TimeoutException) {
+                    log.warn("Call to service {} exceeded its {} ms deadline", serviceName, timeout.toMillis());
+                    if (claimed.compareAndSet(false, true)) {
+                        running.cancel(false);
+                        permits.release();
+                    } else {
+                        running.cancel(true);
+                    }
+                }
+            });
+        }
+        return result;
+    }
+}
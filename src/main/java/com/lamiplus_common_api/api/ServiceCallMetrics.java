@@ -0,0 +1,83 @@
+package com.lamiplus_common_api.api;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer meters for one method of one plugin service, recorded by {@link ServiceProxy}.
+ *
+ * Meters are registered once per (service, method) against {@link Metrics#globalRegistry}, which
+ * Spring Boot's registry joins by default, and tagged with {@code service} and {@code method}:
+ * <ul>
+ *   <li>{@code plugin.service.calls} - latency timer with a percentile histogram; its count is the call count</li>
+ *   <li>{@code plugin.service.call.errors} - calls that threw</li>
+ *   <li>{@code plugin.service.call.misses} - calls to a method the service does not have</li>
+ *   <li>{@code plugin.service.call.rejected} - calls short-circuited by an open {@link ServiceCircuitBreaker}</li>
+ * </ul>
+ * Recording uses the meters' striped counters and does not allocate per call.
+ */
+final class ServiceCallMetrics {
+
+    private static final Map<String, Map<String, ServiceCallMetrics>> METRICS = new ConcurrentHashMap<>();
+
+    private final Timer latency;
+    private final Counter errors;
+    private final Counter misses;
+    private final Counter rejections;
+
+    private ServiceCallMetrics(MeterRegistry registry, String serviceName, String methodName) {
+        this.latency = Timer.builder("plugin.service.calls")
+                .description("Latency of cross-plugin ServiceProxy calls")
+                .tag("service", serviceName)
+                .tag("method", methodName)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))
+                .maximumExpectedValue(ServiceProxy.DEFAULT_ASYNC_TIMEOUT)
+                .register(registry);
+        this.errors = counter(registry, "plugin.service.call.errors", serviceName, methodName);
+        this.misses = counter(registry, "plugin.service.call.misses", serviceName, methodName);
+        this.rejections = counter(registry, "plugin.service.call.rejected", serviceName, methodName);
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String serviceName, String methodName) {
+        return Counter.builder(name)
+                .tag("service", serviceName)
+                .tag("method", methodName)
+                .register(registry);
+    }
+
+    /** Meters of one service by method name; held by each proxy to avoid a two-level lookup per call. */
+    static Map<String, ServiceCallMetrics> forService(String serviceName) {
+        return METRICS.computeIfAbsent(serviceName, name -> new ConcurrentHashMap<>());
+    }
+
+    static ServiceCallMetrics get(Map<String, ServiceCallMetrics> metrics, String serviceName, String methodName) {
+        ServiceCallMetrics m = metrics.get(methodName);
+        return m != null ? m
+                : metrics.computeIfAbsent(methodName, name -> new ServiceCallMetrics(Metrics.globalRegistry, serviceName, name));
+    }
+
+    void success(long elapsedNanos) {
+        latency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    void failure(long elapsedNanos) {
+        latency.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        errors.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void rejected() {
+        rejections.increment();
+    }
+}
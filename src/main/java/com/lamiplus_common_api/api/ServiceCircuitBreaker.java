@@ -0,0 +1,220 @@
+package com.lamiplus_common_api.api;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Circuit breaker guarding one method of one plugin service, used by {@link ServiceProxy}.
+ *
+ * The breaker keeps the outcome of the last {@value #WINDOW_SIZE} calls. Once at least
+ * {@value #MINIMUM_CALLS} calls have been recorded and {@value #FAILURE_RATE_THRESHOLD}% or more
+ * of them failed, it opens and calls fail fast for {@link #OPEN_DURATION}. After that a single
+ * probe call is let through (half-open): success closes the breaker, failure re-opens it.
+ *
+ * Breakers are keyed by (service name, method name) and shared by all proxies for the service,
+ * so {@link #all()} gives monitoring a complete view.
+ */
+@Slf4j
+public final class ServiceCircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    static final int WINDOW_SIZE = 20;
+    static final int MINIMUM_CALLS = 10;
+    static final int FAILURE_RATE_THRESHOLD = 50;
+    static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+
+    private static final Map<String, Map<String, ServiceCircuitBreaker>> BREAKERS = new ConcurrentHashMap<>();
+
+    private final String serviceName;
+    private final String methodName;
+    private final Duration openDuration;
+
+    private final LongAdder successes = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    // Sliding window of outcomes (true = failure), guarded by this
+    private final boolean[] window = new boolean[WINDOW_SIZE];
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+    private volatile int consecutiveFailures;
+
+    private volatile State state = State.CLOSED;
+    private long openUntilNanos;
+    private boolean probeInFlight;
+
+    private ServiceCircuitBreaker(String serviceName, String methodName) {
+        this(serviceName, methodName, OPEN_DURATION);
+    }
+
+    /** A standalone breaker (not in {@link #all()}) with its own open duration. */
+    ServiceCircuitBreaker(String serviceName, String methodName, Duration openDuration) {
+        this.serviceName = serviceName;
+        this.methodName = methodName;
+        this.openDuration = openDuration;
+    }
+
+    /** Breakers of one service by method name; held by each proxy to avoid a two-level lookup per call. */
+    static Map<String, ServiceCircuitBreaker> forService(String serviceName) {
+        return BREAKERS.computeIfAbsent(serviceName, name -> new ConcurrentHashMap<>());
+    }
+
+    static ServiceCircuitBreaker get(Map<String, ServiceCircuitBreaker> breakers, String serviceName, String methodName) {
+        ServiceCircuitBreaker breaker = breakers.get(methodName);
+        return breaker != null ? breaker
+                : breakers.computeIfAbsent(methodName, name -> new ServiceCircuitBreaker(serviceName, name));
+    }
+
+    /** All breakers created so far, for monitoring. */
+    public static List<ServiceCircuitBreaker> all() {
+        List<ServiceCircuitBreaker> result = new ArrayList<>();
+        BREAKERS.values().forEach(byMethod -> result.addAll(byMethod.values()));
+        return result;
+    }
+
+    public static Optional<ServiceCircuitBreaker> find(String serviceName, String methodName) {
+        Map<String, ServiceCircuitBreaker> byMethod = BREAKERS.get(serviceName);
+        return Optional.ofNullable(byMethod != null ? byMethod.get(methodName) : null);
+    }
+
+    // ========================
+    // CALL PROTOCOL
+    // ========================
+
+    /**
+     * Ask permission for a call. Returns false (and counts a rejection) while the breaker is
+     * open, or half-open with its probe already in flight.
+     */
+    boolean tryAcquire() {
+        if (state == State.CLOSED) return true;
+
+        synchronized (this) {
+            if (state == State.OPEN && System.nanoTime() - openUntilNanos >= 0) {
+                state = State.HALF_OPEN;
+                probeInFlight = false;
+            }
+            if (state == State.HALF_OPEN && !probeInFlight) {
+                probeInFlight = true;
+                return true;
+            }
+            if (state == State.CLOSED) return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    void onSuccess() {
+        successes.increment();
+        synchronized (this) {
+            if (consecutiveFailures != 0) consecutiveFailures = 0;
+            if (state == State.HALF_OPEN) {
+                log.info("Circuit for {}.{} closed after successful probe", serviceName, methodName);
+                state = State.CLOSED;
+                clearWindow();
+                return;
+            }
+            record(false);
+        }
+    }
+
+    void onFailure() {
+        failures.increment();
+        synchronized (this) {
+            consecutiveFailures++;
+            if (state == State.HALF_OPEN) {
+                open();
+            } else {
+                record(true);
+                if (state == State.CLOSED && windowCount >= MINIMUM_CALLS
+                        && windowFailures * 100 >= FAILURE_RATE_THRESHOLD * windowCount) {
+                    open();
+                }
+            }
+        }
+    }
+
+    /** Failures since the last successful call; used to throttle error logging. */
+    int consecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /** Force the breaker closed and forget the recorded window. */
+    public synchronized void reset() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        clearWindow();
+    }
+
+    private void open() {
+        log.error("Circuit for {}.{} opened: {} of the last {} calls failed; failing fast for {}s",
+                serviceName, methodName, windowFailures, windowCount, openDuration.toSeconds());
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + openDuration.toNanos();
+        probeInFlight = false;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == WINDOW_SIZE) {
+            if (window[windowIndex]) windowFailures--;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) windowFailures++;
+        windowIndex = (windowIndex + 1) % WINDOW_SIZE;
+    }
+
+    private void clearWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    // ========================
+    // MONITORING
+    // ========================
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getMethodName() {
+        return methodName;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /** Failure rate (0-100) over the current sliding window. */
+    public synchronized int getFailureRate() {
+        return windowCount == 0 ? 0 : windowFailures * 100 / windowCount;
+    }
+
+    public long getSuccessCount() {
+        return successes.sum();
+    }
+
+    public long getFailureCount() {
+        return failures.sum();
+    }
+
+    /** Calls rejected without reaching the service because the breaker was open. */
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    @Override
+    public String toString() {
+        return serviceName + "." + methodName + "[" + state + "]";
+    }
+}
@@ -0,0 +1,253 @@
+package com.lamiplus_common_api.api;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.invoke.WrongMethodTypeException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+/**
+ * A resolved invocation target for one (method name, argument class signature) pair.
+ *
+ * Instances are created by {@link ServiceMethodCache} and shared by every {@link ServiceProxy}
+ * wrapping a service of the same class. A "missing" instance records that no compatible
+ * method exists, so repeated calls to an unknown method skip the reflective scan.
+ */
+final class ServiceMethod {
+
+    private static final MethodHandle UNBOX_LONG;
+    private static final MethodHandle UNBOX_INT;
+    private static final MethodHandle UNBOX_BOOLEAN;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            UNBOX_LONG = lookup.findStatic(ServiceMethod.class, "unboxLong",
+                    MethodType.methodType(long.class, Object.class));
+            UNBOX_INT = lookup.findStatic(ServiceMethod.class, "unboxInt",
+                    MethodType.methodType(int.class, Object.class));
+            UNBOX_BOOLEAN = lookup.findStatic(ServiceMethod.class, "unboxBoolean",
+                    MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String name;
+    private final Class<?>[] signature;
+    private final Method method;
+    private final MethodHandle handle;
+    private final MethodHandle invoker;
+    private final ServiceResultCache.Policy cachePolicy;
+
+    // Exact-typed (Object, Object x arity) -> primitive handles, created on first use
+    private volatile MethodHandle longInvoker;
+    private volatile MethodHandle intInvoker;
+    private volatile MethodHandle booleanInvoker;
+
+    private ServiceMethod(String name, Class<?>[] signature, Method method, MethodHandle handle,
+                          ServiceResultCache.Policy cachePolicy) {
+        this.name = name;
+        this.signature = signature;
+        this.method = method;
+        this.handle = handle;
+        this.invoker = handle != null ? spread(handle, signature.length) : null;
+        this.cachePolicy = cachePolicy;
+    }
+
+    static ServiceMethod resolved(String name, Class<?>[] signature, Method method) throws IllegalAccessException {
+        return resolved(name, signature, method, null);
+    }
+
+    static ServiceMethod resolved(String name, Class<?>[] signature, Method method,
+                                  ServiceResultCache.Policy cachePolicy) throws IllegalAccessException {
+        return new ServiceMethod(name, signature, method, unreflect(method).asFixedArity(), cachePolicy);
+    }
+
+    static ServiceMethod missing(String name, Class<?>[] signature) {
+        return new ServiceMethod(name, signature, null, null, null);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    Method getMethod() {
+        return method;
+    }
+
+    boolean isMissing() {
+        return method == null;
+    }
+
+    /** True when results are served from a {@link PluginCacheable} result cache. */
+    boolean isMemoized() {
+        return cachePolicy != null;
+    }
+
+    /** The result cache of this method on {@code service}; only for {@link #isMemoized() memoized} targets. */
+    ServiceResultCache resultCache(Object service) {
+        return ServiceResultCache.forTarget(service, method, cachePolicy);
+    }
+
+    /**
+     * True when the runtime classes of {@code params} are exactly the ones this target was
+     * resolved for. Null arguments only match a null slot.
+     */
+    boolean matches(Object[] params) {
+        if (params.length != signature.length) return false;
+        for (int i = 0; i < params.length; i++) {
+            Object param = params[i];
+            if (param == null ? signature[i] != null : param.getClass() != signature[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Fixed-arity variant of {@link #matches(Object[])} for the allocation-free call paths;
+     * only the first {@code arity} arguments are inspected.
+     */
+    boolean matches(int arity, Object arg0, Object arg1, Object arg2) {
+        return signature.length == arity
+                && (arity < 1 || sameClass(arg0, signature[0]))
+                && (arity < 2 || sameClass(arg1, signature[1]))
+                && (arity < 3 || sameClass(arg2, signature[2]));
+    }
+
+    private static boolean sameClass(Object param, Class<?> type) {
+        return param == null ? type == null : param.getClass() == type;
+    }
+
+    /**
+     * Invoke the target on {@code service}. Exceptions thrown by the target are rethrown as-is;
+     * other throwables (linkage errors from plugin classloaders and the like) are wrapped in
+     * {@link InvocationTargetException} the same way {@link Method#invoke} would.
+     */
+    Object invoke(Object service, Object[] params) throws Exception {
+        try {
+            return invoker.invokeExact(service, params);
+        } catch (Exception | VirtualMachineError e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new InvocationTargetException(t);
+        }
+    }
+
+    // ========================
+    // EXACT PRIMITIVE INVOKERS
+    // ========================
+
+    /** Handle of type {@code (Object, Object x arity)long}, for {@code invokeExact}. */
+    private MethodHandle longInvoker() {
+        MethodHandle h = longInvoker;
+        if (h == null) longInvoker = h = exactInvoker(long.class, UNBOX_LONG);
+        return h;
+    }
+
+    /** Handle of type {@code (Object, Object x arity)int}, for {@code invokeExact}. */
+    private MethodHandle intInvoker() {
+        MethodHandle h = intInvoker;
+        if (h == null) intInvoker = h = exactInvoker(int.class, UNBOX_INT);
+        return h;
+    }
+
+    /** Handle of type {@code (Object, Object x arity)boolean}, for {@code invokeExact}. */
+    private MethodHandle booleanInvoker() {
+        MethodHandle h = booleanInvoker;
+        if (h == null) booleanInvoker = h = exactInvoker(boolean.class, UNBOX_BOOLEAN);
+        return h;
+    }
+
+    /** Invoke with the first {@code arity} arguments, without boxing them or the result. */
+    long invokeLong(Object service, int arity, Object arg0, Object arg1, Object arg2) throws Throwable {
+        MethodHandle h = longInvoker();
+        return switch (arity) {
+            case 0 -> (long) h.invokeExact(service);
+            case 1 -> (long) h.invokeExact(service, arg0);
+            case 2 -> (long) h.invokeExact(service, arg0, arg1);
+            default -> (long) h.invokeExact(service, arg0, arg1, arg2);
+        };
+    }
+
+    /** Invoke with the first {@code arity} arguments, without boxing them or the result. */
+    int invokeInt(Object service, int arity, Object arg0, Object arg1, Object arg2) throws Throwable {
+        MethodHandle h = intInvoker();
+        return switch (arity) {
+            case 0 -> (int) h.invokeExact(service);
+            case 1 -> (int) h.invokeExact(service, arg0);
+            case 2 -> (int) h.invokeExact(service, arg0, arg1);
+            default -> (int) h.invokeExact(service, arg0, arg1, arg2);
+        };
+    }
+
+    /** Invoke with the first {@code arity} arguments, without boxing them or the result. */
+    boolean invokeBoolean(Object service, int arity, Object arg0, Object arg1, Object arg2) throws Throwable {
+        MethodHandle h = booleanInvoker();
+        return switch (arity) {
+            case 0 -> (boolean) h.invokeExact(service);
+            case 1 -> (boolean) h.invokeExact(service, arg0);
+            case 2 -> (boolean) h.invokeExact(service, arg0, arg1);
+            default -> (boolean) h.invokeExact(service, arg0, arg1, arg2);
+        };
+    }
+
+    /**
+     * Primitive returns that widen to {@code primitive} are adapted directly, so the result is
+     * never boxed. Anything else (wrappers, void, narrowing) goes through {@code unboxer}.
+     */
+    private MethodHandle exactInvoker(Class<?> primitive, MethodHandle unboxer) {
+        MethodType erased = MethodType.genericMethodType(signature.length + 1);
+        if (method.getReturnType().isPrimitive()) {
+            try {
+                return handle.asType(erased.changeReturnType(primitive));
+            } catch (WrongMethodTypeException e) {
+                // not a widening conversion, fall through to the boxed path
+            }
+        }
+        return MethodHandles.filterReturnValue(handle.asType(erased), unboxer);
+    }
+
+    /** Null (or void) yields 0; only widening conversions are accepted. */
+    static long unboxLong(Object value) {
+        if (value == null) return 0L;
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        throw new ClassCastException(value.getClass().getName() + " cannot be converted to long");
+    }
+
+    static int unboxInt(Object value) {
+        if (value == null) return 0;
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        }
+        throw new ClassCastException(value.getClass().getName() + " cannot be converted to int");
+    }
+
+    static boolean unboxBoolean(Object value) {
+        return value != null && (Boolean) value;
+    }
+
+    static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            // Public method on a non-public class (common for plugin service implementations)
+            if (!method.trySetAccessible()) throw e;
+            return MethodHandles.lookup().unreflect(method);
+        }
+    }
+
+    /**
+     * Build a handle of type {@code (Object, Object[])Object}: receiver, spread arguments,
+     * boxed (or null for void) result.
+     */
+    private static MethodHandle spread(MethodHandle handle, int arity) {
+        return handle
+                .asType(MethodType.genericMethodType(arity + 1))
+                .asSpreader(Object[].class, arity);
+    }
+}
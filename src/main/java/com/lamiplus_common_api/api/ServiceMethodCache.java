@@ -0,0 +1,265 @@
+package com.lamiplus_common_api.api;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Invocation cache used by {@link ServiceProxy}.
+ *
+ * One cache exists per service class (held in a {@link ClassValue}, so it goes away with the
+ * plugin classloader) and is therefore shared by every proxy created for that class. Entries are
+ * keyed by method name and the runtime classes of the arguments; the lookup compares classes in
+ * place and does not allocate once a call shape has been seen.
+ */
+@Slf4j
+final class ServiceMethodCache {
+
+    /** Upper bound on distinct argument signatures remembered per method name. */
+    private static final int MAX_SIGNATURES_PER_NAME = 16;
+
+    private static final ServiceMethod[] NONE = new ServiceMethod[0];
+
+    private static final ClassValue<ServiceMethodCache> CACHES = new ClassValue<>() {
+        @Override
+        protected ServiceMethodCache computeValue(Class<?> type) {
+            return new ServiceMethodCache(type);
+        }
+    };
+
+    private final Class<?> serviceClass;
+    private final ConcurrentHashMap<String, ServiceMethod[]> byName = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ServiceMethod> batchMethods = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ServiceResultCache.Policy> cachePolicies = new ConcurrentHashMap<>();
+    private final Set<String> overflowLogged = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Contract bindings, kept here rather than on the contract class: a binding holds handles into
+     * the service class, and a value attached to the caller's contract would pin the service's
+     * loader for as long as the caller lives. Keys and values are weak in both directions (a binding
+     * references its contract), so an entry goes once no bound proxy is left and either side unloads.
+     */
+    private final Cache<Class<?>, ServiceBinding> bindings = Caffeine.newBuilder()
+            .weakKeys()
+            .weakValues()
+            .build();
+
+    private ServiceMethodCache(Class<?> serviceClass) {
+        this.serviceClass = serviceClass;
+    }
+
+    static ServiceMethodCache forClass(Class<?> serviceClass) {
+        return CACHES.get(serviceClass);
+    }
+
+    /**
+     * Return the cached target for this call shape, resolving (and remembering) it on first use.
+     * Never returns null; unknown methods yield a {@link ServiceMethod#isMissing() missing} entry.
+     */
+    ServiceMethod lookup(String methodName, Object[] params) {
+        ServiceMethod[] candidates = byName.get(methodName);
+        if (candidates != null) {
+            for (ServiceMethod candidate : candidates) {
+                if (candidate.matches(params)) return candidate;
+            }
+        }
+        return resolve(methodName, params);
+    }
+
+    /**
+     * Allocation-free variant of {@link #lookup(String, Object[])} for up to three arguments.
+     * Only the first {@code arity} arguments are considered.
+     */
+    ServiceMethod lookup(String methodName, int arity, Object arg0, Object arg1, Object arg2) {
+        ServiceMethod[] candidates = byName.get(methodName);
+        if (candidates != null) {
+            for (ServiceMethod candidate : candidates) {
+                if (candidate.matches(arity, arg0, arg1, arg2)) return candidate;
+            }
+        }
+        Object[] params = switch (arity) {
+            case 0 -> new Object[0];
+            case 1 -> new Object[]{arg0};
+            case 2 -> new Object[]{arg0, arg1};
+            default -> new Object[]{arg0, arg1, arg2};
+        };
+        return resolve(methodName, params);
+    }
+
+    /**
+     * Memoize results of {@code methodName} as if it carried {@link PluginCacheable}.
+     * Already-resolved targets for the name are dropped so the policy applies to the next call.
+     */
+    void registerCacheable(String methodName, Duration ttl, int maxEntries) {
+        cachePolicies.put(methodName, new ServiceResultCache.Policy(ttl, maxEntries));
+        byName.remove(methodName);
+    }
+
+    /**
+     * Return the batch-shaped overload of {@code methodName} - one taking a single {@code List}
+     * (or {@code Collection}/{@code Iterable}) and returning a {@code List} - or a missing entry
+     * when the service has none. Resolved once per name.
+     */
+    ServiceMethod batchLookup(String methodName) {
+        return batchMethods.computeIfAbsent(methodName, this::resolveBatch);
+    }
+
+    private ServiceMethod resolveBatch(String methodName) {
+        Class<?>[] signature = {ArrayList.class};
+        for (Method method : serviceClass.getMethods()) {
+            if (!method.getName().equals(methodName) || method.getParameterCount() != 1) continue;
+            Class<?> paramType = method.getParameterTypes()[0];
+            if (paramType != Object.class && paramType.isAssignableFrom(ArrayList.class)
+                    && List.class.isAssignableFrom(method.getReturnType())) {
+                try {
+                    return ServiceMethod.resolved(methodName, signature, method);
+                } catch (IllegalAccessException e) {
+                    log.debug("Batch method {} on {} is not accessible: {}", methodName, serviceClass.getName(), e.getMessage());
+                }
+            }
+        }
+        return ServiceMethod.missing(methodName, signature);
+    }
+
+    /**
+     * Return the binding of {@code contract} onto this service class, creating it on first use.
+     *
+     * @throws IllegalArgumentException if a contract method has no compatible service method
+     */
+    ServiceBinding binding(Class<?> contract) {
+        return bindings.get(contract, type -> ServiceBinding.create(serviceClass, type));
+    }
+
+    private ServiceMethod resolve(String methodName, Object[] params) {
+        Class<?>[] signature = new Class<?>[params.length];
+        for (int i = 0; i < params.length; i++) {
+            signature[i] = params[i] != null ? params[i].getClass() : null;
+        }
+
+        ServiceMethod target;
+        Method method = findMethod(methodName, params);
+        if (method == null) {
+            target = ServiceMethod.missing(methodName, signature);
+        } else {
+            try {
+                target = ServiceMethod.resolved(methodName, signature, method, cachePolicy(method));
+            } catch (IllegalAccessException e) {
+                log.error("Method {} on {} is not accessible: {}", methodName, serviceClass.getName(), e.getMessage());
+                target = ServiceMethod.missing(methodName, signature);
+            }
+        }
+
+        ServiceMethod resolved = target;
+        byName.compute(methodName, (name, existing) -> {
+            ServiceMethod[] current = existing != null ? existing : NONE;
+            for (ServiceMethod candidate : current) {
+                if (candidate.matches(params)) return current; // raced with another thread
+            }
+            if (current.length >= MAX_SIGNATURES_PER_NAME) {
+                if (overflowLogged.add(name)) {
+                    log.warn("{}.{} called with more than {} argument signatures; further ones are resolved on every call",
+                            serviceClass.getSimpleName(), name, MAX_SIGNATURES_PER_NAME);
+                }
+                return current;
+            }
+            ServiceMethod[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = resolved;
+            return next;
+        });
+        return target;
+    }
+
+    /**
+     * The memoization policy when the method is registered or annotated, otherwise null. The
+     * result caches themselves live per service instance (see {@link ServiceResultCache#forTarget}),
+     * so they survive however the target was resolved.
+     */
+    private ServiceResultCache.Policy cachePolicy(Method method) {
+        ServiceResultCache.Policy policy = cachePolicies.get(method.getName());
+        if (policy != null) return policy;
+        PluginCacheable cacheable = AnnotatedElementUtils.findMergedAnnotation(method, PluginCacheable.class);
+        if (cacheable == null) return null;
+        return new ServiceResultCache.Policy(Duration.ofSeconds(cacheable.ttlSeconds()), cacheable.maxEntries());
+    }
+
+    // ========================
+    // RESOLUTION
+    // ========================
+
+    private Method findMethod(String methodName, Object[] params) {
+        try {
+            // Build parameter types array
+            Class<?>[] paramTypes = new Class<?>[params.length];
+            for (int i = 0; i < params.length; i++) {
+                if (params[i] != null) {
+                    // Handle primitive wrapper to primitive conversion
+                    paramTypes[i] = unwrapPrimitive(params[i].getClass());
+                } else {
+                    paramTypes[i] = Object.class;
+                }
+            }
+
+            // Try exact match first
+            try {
+                return serviceClass.getMethod(methodName, paramTypes);
+            } catch (NoSuchMethodException e) {
+                // Try to find by name and parameter count (handles primitive/wrapper mismatches)
+                for (Method method : serviceClass.getMethods()) {
+                    if (method.getName().equals(methodName) &&
+                            method.getParameterCount() == params.length) {
+
+                        // Check if parameters are compatible
+                        Class<?>[] methodParamTypes = method.getParameterTypes();
+                        boolean compatible = true;
+
+                        for (int i = 0; i < params.length; i++) {
+                            if (params[i] != null &&
+                                    !isCompatible(methodParamTypes[i], params[i].getClass())) {
+                                compatible = false;
+                                break;
+                            }
+                        }
+
+                        if (compatible) {
+                            return method;
+                        }
+                    }
+                }
+            }
+
+            return null;
+        } catch (Exception e) {
+            log.error("Error finding method {}: {}", methodName, e.getMessage());
+            return null;
+        }
+    }
+
+    static boolean isCompatible(Class<?> paramType, Class<?> valueType) {
+        // Handle primitives and their wrappers
+        paramType = unwrapPrimitive(paramType);
+        valueType = unwrapPrimitive(valueType);
+
+        return paramType.isAssignableFrom(valueType);
+    }
+
+    static Class<?> unwrapPrimitive(Class<?> type) {
+        if (type == Integer.class) return int.class;
+        if (type == Long.class) return long.class;
+        if (type == Boolean.class) return boolean.class;
+        if (type == Double.class) return double.class;
+        if (type == Float.class) return float.class;
+        if (type == Short.class) return short.class;
+        if (type == Byte.class) return byte.class;
+        if (type == Character.class) return char.class;
+        return type;
+    }
+}
@@ -2,35 +2,53 @@ package com.lamiplus_common_api.api;
 
 import lombok.extern.slf4j.Slf4j;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 
 @Slf4j
 public class ServiceProxy {
 
+    private static final Object[] NO_ARGS = new Object[0];
+
+    /** Deadline applied by {@link #callAsync(String, Class, Object...)}. */
+    public static final Duration DEFAULT_ASYNC_TIMEOUT = Duration.ofSeconds(30);
+
+    /** Markers returned by {@link #invoke} when the call was skipped. */
+    private static final Object NOT_FOUND = new Object();
+    private static final Object CIRCUIT_OPEN = new Object();
+
     private final Object service;
     private final String serviceName;
+    private final ServiceMethodCache methods;
+    private final Map<String, ServiceCircuitBreaker> breakers;
+    private final Map<String, ServiceCallMetrics> metrics;
 
     public ServiceProxy(Object service, String serviceName) {
         this.service = service;
         this.serviceName = serviceName;
+        this.methods = service != null ? ServiceMethodCache.forClass(service.getClass()) : null;
+        this.breakers = ServiceCircuitBreaker.forService(serviceName);
+        this.metrics = ServiceCallMetrics.forService(serviceName);
     }
 
 
     @SuppressWarnings("unchecked")
     public <T> Optional<T> callOptional(String methodName, Object... params) {
         try {
-            Method method = findMethod(methodName, params);
-            if (method == null) {
-                log.warn("Method {} not found in service {}", methodName, serviceName);
-                return Optional.empty();
-            }
-
-            Object result = method.invoke(service, params);
+            Object result = invoke(methodName, params);
+            if (skipped(result)) return Optional.empty();
             return (Optional<T>) result;
         } catch (Exception e) {
-            log.error("Error calling {}.{}: {}", serviceName, methodName, e.getMessage(), e);
+            failed(methodName, breaker(methodName), e);
             return Optional.empty();
         }
     }
@@ -38,16 +56,11 @@ public class ServiceProxy {
 
     public boolean callBoolean(String methodName, Object... params) {
         try {
-            Method method = findMethod(methodName, params);
-            if (method == null) {
-                log.warn("Method {} not found in service {}", methodName, serviceName);
-                return false;
-            }
-
-            Object result = method.invoke(service, params);
-            return result != null && (Boolean) result;
+            Object result = invoke(methodName, params);
+            if (skipped(result)) return false;
+            return ServiceMethod.unboxBoolean(result);
         } catch (Exception e) {
-            log.error("Error calling {}.{}: {}", serviceName, methodName, e.getMessage(), e);
+            failed(methodName, breaker(methodName), e);
             return false;
         }
     }
@@ -55,47 +68,31 @@ public class ServiceProxy {
 
     public <T> T call(String methodName, Class<T> returnType, Object... params) {
         try {
-            Method method = findMethod(methodName, params);
-            if (method == null) {
-                log.warn("Method {} not found in service {}", methodName, serviceName);
-                return null;
-            }
-
-            Object result = method.invoke(service, params);
+            Object result = invoke(methodName, params);
+            if (skipped(result)) return null;
             return result != null ? returnType.cast(result) : null;
         } catch (Exception e) {
-            log.error("Error calling {}.{}: {}", serviceName, methodName, e.getMessage(), e);
+            failed(methodName, breaker(methodName), e);
             return null;
         }
     }
 
     public void callVoid(String methodName, Object... params) {
         try {
-            Method method = findMethod(methodName, params);
-            if (method == null) {
-                log.warn("Method {} not found in service {}", methodName, serviceName);
-                return;
-            }
-
-            method.invoke(service, params);
+            invoke(methodName, params);
         } catch (Exception e) {
-            log.error("Error calling {}.{}: {}", serviceName, methodName, e.getMessage(), e);
+            failed(methodName, breaker(methodName), e);
         }
     }
 
 
     public long callLong(String methodName, Object... params) {
         try {
-            Method method = findMethod(methodName, params);
-            if (method == null) {
-                log.warn("Method {} not found in service {}", methodName, serviceName);
-                return 0L;
-            }
-
-            Object result = method.invoke(service, params);
-            return result != null ? (Long) result : 0L;
+            Object result = invoke(methodName, params);
+            if (skipped(result)) return 0L;
+            return ServiceMethod.unboxLong(result);
         } catch (Exception e) {
-            log.error("Error calling {}.{}: {}", serviceName, methodName, e.getMessage(), e);
+            failed(methodName, breaker(methodName), e);
             return 0L;
         }
     }
@@ -103,90 +100,491 @@ public class ServiceProxy {
 
     public int callInt(String methodName, Object... params) {
         try {
-            Method method = findMethod(methodName, params);
-            if (method == null) {
-                log.warn("Method {} not found in service {}", methodName, serviceName);
-                return 0;
-            }
-
-            Object result = method.invoke(service, params);
-            return result != null ? (Integer) result : 0;
+            Object result = invoke(methodName, params);
+            if (skipped(result)) return 0;
+            return ServiceMethod.unboxInt(result);
         } catch (Exception e) {
-            log.error("Error calling {}.{}: {}", serviceName, methodName, e.getMessage(), e);
+            failed(methodName, breaker(methodName), e);
             return 0;
         }
     }
 
 
-    private Method findMethod(String methodName, Object... params) {
+    // ========================
+    // PRIMITIVE FAST PATHS
+    // ========================
+    //
+    // Fixed-arity overloads for the counter-style calls. They use exact-typed handles, so neither
+    // an argument array nor a boxed result is allocated once the call shape has been resolved.
+    // All of them go through callPrimitive; memoized methods are delegated to the varargs forms,
+    // which go through the result cache.
+
+    public long callLong(String methodName) {
+        return callPrimitive(Primitive.LONG, methodName, 0, null, null, null);
+    }
+
+    public long callLong(String methodName, Object arg0) {
+        return callPrimitive(Primitive.LONG, methodName, 1, arg0, null, null);
+    }
+
+    public long callLong(String methodName, Object arg0, Object arg1) {
+        return callPrimitive(Primitive.LONG, methodName, 2, arg0, arg1, null);
+    }
+
+    public long callLong(String methodName, Object arg0, Object arg1, Object arg2) {
+        return callPrimitive(Primitive.LONG, methodName, 3, arg0, arg1, arg2);
+    }
+
+    public int callInt(String methodName) {
+        return (int) callPrimitive(Primitive.INT, methodName, 0, null, null, null);
+    }
+
+    public int callInt(String methodName, Object arg0) {
+        return (int) callPrimitive(Primitive.INT, methodName, 1, arg0, null, null);
+    }
+
+    public int callInt(String methodName, Object arg0, Object arg1) {
+        return (int) callPrimitive(Primitive.INT, methodName, 2, arg0, arg1, null);
+    }
+
+    public int callInt(String methodName, Object arg0, Object arg1, Object arg2) {
+        return (int) callPrimitive(Primitive.INT, methodName, 3, arg0, arg1, arg2);
+    }
+
+    public boolean callBoolean(String methodName) {
+        return callPrimitive(Primitive.BOOLEAN, methodName, 0, null, null, null) != 0;
+    }
+
+    public boolean callBoolean(String methodName, Object arg0) {
+        return callPrimitive(Primitive.BOOLEAN, methodName, 1, arg0, null, null) != 0;
+    }
+
+    public boolean callBoolean(String methodName, Object arg0, Object arg1) {
+        return callPrimitive(Primitive.BOOLEAN, methodName, 2, arg0, arg1, null) != 0;
+    }
+
+    public boolean callBoolean(String methodName, Object arg0, Object arg1, Object arg2) {
+        return callPrimitive(Primitive.BOOLEAN, methodName, 3, arg0, arg1, arg2) != 0;
+    }
+
+    private enum Primitive { LONG, INT, BOOLEAN }
+
+    /**
+     * Shared body of the fast paths. Every primitive result fits in a long (booleans as 1/0);
+     * failures, missing methods and open circuits yield 0.
+     */
+    private long callPrimitive(Primitive kind, String methodName, int arity, Object arg0, Object arg1, Object arg2) {
+        ServiceMethod target = target(methodName, arity, arg0, arg1, arg2);
+        if (target == null) return 0L;
+        if (target.isMemoized()) {
+            Object[] args = switch (arity) {
+                case 0 -> NO_ARGS;
+                case 1 -> new Object[]{arg0};
+                case 2 -> new Object[]{arg0, arg1};
+                default -> new Object[]{arg0, arg1, arg2};
+            };
+            return switch (kind) {
+                case LONG -> callLong(methodName, args);
+                case INT -> callInt(methodName, args);
+                case BOOLEAN -> callBoolean(methodName, args) ? 1L : 0L;
+            };
+        }
+        ServiceCircuitBreaker breaker = acquire(methodName);
+        if (breaker == null) return 0L;
+        long start = System.nanoTime();
         try {
-            // Build parameter types array
-            Class<?>[] paramTypes = new Class<?>[params.length];
-            for (int i = 0; i < params.length; i++) {
-                if (params[i] != null) {
-                    paramTypes[i] = params[i].getClass();
-                    // Handle primitive wrapper to primitive conversion
-                    paramTypes[i] = unwrapPrimitive(paramTypes[i]);
-                } else {
-                    paramTypes[i] = Object.class;
-                }
+            long result = switch (kind) {
+                case LONG -> target.invokeLong(service, arity, arg0, arg1, arg2);
+                case INT -> target.invokeInt(service, arity, arg0, arg1, arg2);
+                case BOOLEAN -> target.invokeBoolean(service, arity, arg0, arg1, arg2) ? 1L : 0L;
+            };
+            completed(methodName, breaker, start);
+            return result;
+        } catch (Throwable e) {
+            errored(methodName, breaker, start);
+            failed(methodName, breaker, e);
+            return 0L;
+        }
+    }
+
+
+    // ========================
+    // BATCH
+    // ========================
+
+    /**
+     * Untyped form of {@link #callBatch(String, Class, List)}.
+     */
+    public List<Object> callBatch(String methodName, List<Object[]> argsList) {
+        return callBatch(methodName, Object.class, argsList);
+    }
+
+    /**
+     * Invoke {@code methodName} once per argument array and return the results in the same order.
+     *
+     * When every invocation takes a single argument and the service exposes a batch-shaped
+     * overload ({@code methodName(List)} returning a {@code List}), that overload is called once
+     * with all arguments instead; it must return its results positionally, and when it returns
+     * a different number of results the entries are invoked one by one instead. Otherwise the
+     * target is resolved once and reused across the loop. Failed, missing, short-circuited or
+     * wrongly typed entries yield null, and failures are logged once per batch rather than once
+     * per entry.
+     */
+    public <T> List<T> callBatch(String methodName, Class<T> returnType, List<Object[]> argsList) {
+        if (argsList == null || argsList.isEmpty()) return new ArrayList<>();
+        if (methods == null) {
+            log.warn("Service {} is not available", serviceName);
+            return new ArrayList<>(Collections.nCopies(argsList.size(), null));
+        }
+
+        List<Object> singleArgs = singleArguments(argsList);
+        if (singleArgs != null) {
+            ServiceMethod batch = methods.batchLookup(methodName);
+            if (!batch.isMissing()) {
+                List<T> results = invokeBatch(methodName, returnType, batch, singleArgs);
+                if (results != null) return results;
             }
+        }
+        return callEach(methodName, returnType, argsList);
+    }
 
-            // Try exact match first
+    /** The per-entry loop of {@link #callBatch(String, Class, List)}. */
+    private <T> List<T> callEach(String methodName, Class<T> returnType, List<Object[]> argsList) {
+        List<T> results = new ArrayList<>(argsList.size());
+        ServiceMethod target = null;
+        int misses = 0;
+        int rejected = 0;
+        int failures = 0;
+        int mistyped = 0;
+        Exception firstFailure = null;
+
+        for (Object[] params : argsList) {
+            Object[] args = params != null ? params : NO_ARGS;
+            if (target == null || !target.matches(args)) {
+                target = methods.lookup(methodName, args);
+            }
+            if (target.isMissing()) {
+                metrics(methodName).miss();
+                misses++;
+                results.add(null);
+                continue;
+            }
+            Object result;
             try {
-                return service.getClass().getMethod(methodName, paramTypes);
-            } catch (NoSuchMethodException e) {
-                // Try to find by name and parameter count (handles primitive/wrapper mismatches)
-                for (Method method : service.getClass().getMethods()) {
-                    if (method.getName().equals(methodName) &&
-                            method.getParameterCount() == params.length) {
-
-                        // Check if parameters are compatible
-                        Class<?>[] methodParamTypes = method.getParameterTypes();
-                        boolean compatible = true;
-
-                        for (int i = 0; i < params.length; i++) {
-                            if (params[i] != null &&
-                                    !isCompatible(methodParamTypes[i], params[i].getClass())) {
-                                compatible = false;
-                                break;
-                            }
-                        }
-
-                        if (compatible) {
-                            return method;
-                        }
-                    }
-                }
+                result = invokeResolved(methodName, target, args);
+            } catch (Exception e) {
+                if (firstFailure == null) firstFailure = e;
+                failures++;
+                results.add(null);
+                continue;
+            }
+            if (result == CIRCUIT_OPEN) {
+                rejected++;
+                results.add(null);
+            } else if (result != null && !returnType.isInstance(result)) {
+                mistyped++;
+                results.add(null);
+            } else {
+                results.add(returnType.cast(result));
             }
+        }
+
+        if (misses > 0) {
+            log.warn("Method {} not found in service {} for {} of {} batch entries",
+                    methodName, serviceName, misses, argsList.size());
+        }
+        if (rejected > 0) {
+            log.debug("Circuit open for {}.{}, skipped {} batch entries", serviceName, methodName, rejected);
+        }
+        if (firstFailure != null) {
+            log.error("Error calling {}.{} for {} of {} batch entries: {}", serviceName, methodName,
+                    failures, argsList.size(), firstFailure.getMessage(), firstFailure);
+        }
+        logMistyped(methodName, returnType, mistyped, argsList.size());
+        return results;
+    }
 
+    private void logMistyped(String methodName, Class<?> returnType, int mistyped, int total) {
+        if (mistyped > 0) {
+            log.warn("{}.{} returned {} of {} batch results that are not {}; they yield null",
+                    serviceName, methodName, mistyped, total, returnType.getSimpleName());
+        }
+    }
+
+    /**
+     * Call the batch overload once for all arguments. Returns null, for the per-entry loop to take
+     * over, when it does not return one result per argument.
+     */
+    private <T> List<T> invokeBatch(String methodName, Class<T> returnType, ServiceMethod batch, List<Object> args) {
+        List<T> results = new ArrayList<>(args.size());
+        ServiceCircuitBreaker breaker = acquire(methodName);
+        if (breaker == null) {
+            results.addAll(Collections.nCopies(args.size(), null));
+            return results;
+        }
+
+        long start = System.nanoTime();
+        List<?> returned;
+        try {
+            returned = (List<?>) batch.invoke(service, new Object[]{args});
+            completed(methodName, breaker, start);
+        } catch (Throwable e) {
+            errored(methodName, breaker, start);
+            failed(methodName, breaker, e);
+            results.addAll(Collections.nCopies(args.size(), null));
+            return results;
+        }
+
+        int size = returned != null ? returned.size() : 0;
+        if (size != args.size()) {
+            log.warn("Batch method {}.{} returned {} results for {} inputs, calling them one by one",
+                    serviceName, methodName, size, args.size());
             return null;
-        } catch (Exception e) {
-            log.error("Error finding method {}: {}", methodName, e.getMessage());
+        }
+        int mistyped = 0;
+        for (Object result : returned) {
+            if (result != null && !returnType.isInstance(result)) {
+                mistyped++;
+                results.add(null);
+            } else {
+                results.add(returnType.cast(result));
+            }
+        }
+        logMistyped(methodName, returnType, mistyped, args.size());
+        return results;
+    }
+
+    /**
+     * The sole argument of every entry, or null when the batch is not single-argument (or an
+     * argument is itself a collection, which would make a list overload ambiguous).
+     */
+    private static List<Object> singleArguments(List<Object[]> argsList) {
+        List<Object> singles = new ArrayList<>(argsList.size());
+        for (Object[] params : argsList) {
+            if (params == null || params.length != 1 || params[0] instanceof Collection) return null;
+            singles.add(params[0]);
+        }
+        return singles;
+    }
+
+
+    // ========================
+    // ASYNC
+    // ========================
+
+    /**
+     * Invoke the method on a virtual thread with the {@link #DEFAULT_ASYNC_TIMEOUT default deadline}.
+     *
+     * @see #callAsync(String, Class, Duration, Object...)
+     */
+    public <T> CompletableFuture<T> callAsync(String methodName, Class<T> returnType, Object... params) {
+        return callAsync(methodName, returnType, DEFAULT_ASYNC_TIMEOUT, params);
+    }
+
+    /**
+     * Invoke the method on a virtual thread, so several cross-plugin calls can run in parallel.
+     * The caller's tenant context is carried over to the call.
+     *
+     * Unlike the synchronous methods, failures are reported through the future: it completes
+     * exceptionally with {@link java.util.concurrent.TimeoutException} once {@code timeout}
+     * elapses (the call is interrupted), with {@link RejectedExecutionException} when the service
+     * already has its maximum number of calls in flight or the method's circuit breaker is open,
+     * with {@link NoSuchMethodException} when the method does not exist, or with the service's
+     * own exception.
+     *
+     * @param timeout deadline for the call, or null for none
+     */
+    public <T> CompletableFuture<T> callAsync(String methodName, Class<T> returnType,
+                                              Duration timeout, Object... params) {
+        return ServiceCallExecutor.submit(serviceName, timeout, () -> {
+            Object result = invoke(methodName, params);
+            if (result == NOT_FOUND) {
+                throw new NoSuchMethodException(serviceName + "." + methodName);
+            }
+            if (result == CIRCUIT_OPEN) {
+                throw new RejectedExecutionException("Circuit open for " + serviceName + "." + methodName);
+            }
+            return result != null ? returnType.cast(result) : null;
+        });
+    }
+
+    /**
+     * Limit how many {@link #callAsync asynchronous calls} may run against a service at once
+     * (default {@value ServiceCallExecutor#DEFAULT_MAX_CONCURRENT_CALLS}). Calls beyond the
+     * limit fail fast instead of queueing behind a degraded plugin.
+     */
+    public static void setMaxConcurrentCalls(String serviceName, int maxConcurrentCalls) {
+        ServiceCallExecutor.setMaxConcurrentCalls(serviceName, maxConcurrentCalls);
+    }
+
+
+    /**
+     * Memoize a method of a service class without annotating it, as if it carried
+     * {@link PluginCacheable}. Intended to be called when the plugin registers its services.
+     */
+    public static void registerCacheable(Class<?> serviceClass, String methodName, Duration ttl, int maxEntries) {
+        ServiceMethodCache.forClass(serviceClass).registerCacheable(methodName, ttl, maxEntries);
+    }
+
+
+    /**
+     * Return an implementation of {@code contract} whose methods call the matching methods of the
+     * underlying service directly, so callers can use a typed interface instead of method names.
+     * The wiring is computed once per (service class, contract) and shared by all proxies.
+     * Bound calls share the circuit breakers and meters of the {@code call*} methods, but unlike
+     * them, exceptions thrown by the service propagate to the caller and an open breaker throws
+     * {@link RejectedExecutionException}.
+     *
+     * @throws IllegalArgumentException if {@code contract} is not an interface or one of its
+     *         abstract methods has no compatible counterpart on the service
+     */
+    public <I> I bind(Class<I> contract) {
+        if (!contract.isInterface()) {
+            throw new IllegalArgumentException(contract.getName() + " is not an interface");
+        }
+        if (methods == null) {
+            throw new IllegalStateException("Service " + serviceName + " is not available");
+        }
+        return contract.cast(methods.binding(contract).newInstance(this, serviceName));
+    }
+
+    /** Invoke a {@link #bind bound} contract method's handle under the method's breaker and meters. */
+    Object invokeBound(String methodName, MethodHandle handle, Object[] args) throws Throwable {
+        ServiceCircuitBreaker breaker = acquire(methodName);
+        if (breaker == null) {
+            throw new RejectedExecutionException("Circuit open for " + serviceName + "." + methodName);
+        }
+        long start = System.nanoTime();
+        try {
+            Object result = handle.invokeExact(service, args);
+            completed(methodName, breaker, start);
+            return result;
+        } catch (Throwable e) {
+            errored(methodName, breaker, start);
+            throw e;
+        }
+    }
+
+
+    /**
+     * Resolve the target through the shared {@link ServiceMethodCache} and invoke it, serving
+     * {@link PluginCacheable memoized} methods from their result cache and recording the outcome
+     * on the method's {@link ServiceCircuitBreaker}. Returns {@link #NOT_FOUND} (after logging)
+     * when no compatible method exists and {@link #CIRCUIT_OPEN} when the breaker rejected the call.
+     */
+    private Object invoke(String methodName, Object[] params) throws Exception {
+        if (methods == null) {
+            log.warn("Service {} is not available", serviceName);
+            return NOT_FOUND;
+        }
+        Object[] args = params != null ? params : NO_ARGS;
+        ServiceMethod target = methods.lookup(methodName, args);
+        if (target.isMissing()) {
+            log.warn("Method {} not found in service {}", methodName, serviceName);
+            metrics(methodName).miss();
+            return NOT_FOUND;
+        }
+        return invokeResolved(methodName, target, args);
+    }
+
+    private Object invokeResolved(String methodName, ServiceMethod target, Object[] args) throws Exception {
+        if (!target.isMemoized()) {
+            return invokeGuarded(methodName, target, args);
+        }
+
+        ServiceResultCache cache = target.resultCache(service);
+        ServiceResultCache.Key key = cache.key(target.getMethod(), args);
+        if (key == null) return invokeGuarded(methodName, target, args);
+        Object cached = cache.get(key);
+        if (cached != ServiceResultCache.MISS) return cached;
+        Object result = invokeGuarded(methodName, target, args);
+        if (result != CIRCUIT_OPEN) cache.put(key, result);
+        return result;
+    }
+
+    private Object invokeGuarded(String methodName, ServiceMethod target, Object[] args) throws Exception {
+        ServiceCircuitBreaker breaker = acquire(methodName);
+        if (breaker == null) return CIRCUIT_OPEN;
+        long start = System.nanoTime();
+        try {
+            Object result = target.invoke(service, args);
+            completed(methodName, breaker, start);
+            return result;
+        } catch (Throwable e) {
+            // Errors too: an unrecorded half-open probe would hold the breaker's only probe slot
+            errored(methodName, breaker, start);
+            throw e;
+        }
+    }
+
+    private static boolean skipped(Object result) {
+        return result == NOT_FOUND || result == CIRCUIT_OPEN;
+    }
+
+    /**
+     * Fixed-arity lookup used by the primitive fast paths; null (after logging) when the
+     * target method does not exist.
+     */
+    private ServiceMethod target(String methodName, int arity, Object arg0, Object arg1, Object arg2) {
+        if (methods == null) {
+            log.warn("Service {} is not available", serviceName);
+            return null;
+        }
+        ServiceMethod target = methods.lookup(methodName, arity, arg0, arg1, arg2);
+        if (target.isMissing()) {
+            log.warn("Method {} not found in service {}", methodName, serviceName);
+            metrics(methodName).miss();
+            return null;
+        }
+        return target;
+    }
+
+    /**
+     * Ask the method's circuit breaker for permission to call. Returns the breaker, or null
+     * (after counting the rejection) when it is open.
+     */
+    private ServiceCircuitBreaker acquire(String methodName) {
+        ServiceCircuitBreaker breaker = breaker(methodName);
+        if (!breaker.tryAcquire()) {
+            log.debug("Circuit open for {}.{}, skipping call", serviceName, methodName);
+            metrics(methodName).rejected();
             return null;
         }
+        return breaker;
     }
 
+    private ServiceCircuitBreaker breaker(String methodName) {
+        return ServiceCircuitBreaker.get(breakers, serviceName, methodName);
+    }
 
-    private boolean isCompatible(Class<?> paramType, Class<?> valueType) {
-        // Handle primitives and their wrappers
-        paramType = unwrapPrimitive(paramType);
-        valueType = unwrapPrimitive(valueType);
+    private ServiceCallMetrics metrics(String methodName) {
+        return ServiceCallMetrics.get(metrics, serviceName, methodName);
+    }
 
-        return paramType.isAssignableFrom(valueType);
+    /** Record a successful call on the breaker and the latency timer. */
+    private void completed(String methodName, ServiceCircuitBreaker breaker, long startNanos) {
+        breaker.onSuccess();
+        metrics(methodName).success(System.nanoTime() - startNanos);
     }
 
+    /** Record a failed call on the breaker, the latency timer and the error counter. */
+    private void errored(String methodName, ServiceCircuitBreaker breaker, long startNanos) {
+        breaker.onFailure();
+        metrics(methodName).failure(System.nanoTime() - startNanos);
+    }
 
-    private Class<?> unwrapPrimitive(Class<?> type) {
-        if (type == Integer.class) return int.class;
-        if (type == Long.class) return long.class;
-        if (type == Boolean.class) return boolean.class;
-        if (type == Double.class) return double.class;
-        if (type == Float.class) return float.class;
-        if (type == Short.class) return short.class;
-        if (type == Byte.class) return byte.class;
-        if (type == Character.class) return char.class;
-        return type;
+    /**
+     * Log a failed call. The stack trace is logged once per run of failures; repeats are a
+     * single line so a broken plugin method does not flood the log.
+     */
+    private void failed(String methodName, ServiceCircuitBreaker breaker, Throwable e) {
+        if (e instanceof VirtualMachineError error) throw error;
+        int failures = breaker.consecutiveFailures();
+        if (failures > 1) {
+            log.warn("Error calling {}.{} ({} consecutive failures): {}", serviceName, methodName, failures, e.toString());
+        } else {
+            log.error("Error calling {}.{}: {}", serviceName, methodName, e.getMessage(), e);
+        }
     }
 
 
@@ -200,4 +598,4 @@ public class ServiceProxy {
     public String getServiceName() {
         return serviceName;
     }
-}
\ No newline at end of file
+}
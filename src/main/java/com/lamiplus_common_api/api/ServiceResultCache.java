@@ -0,0 +1,190 @@
+package com.lamiplus_common_api.api;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.lamiplus_common_api.common.Utils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Bounded, TTL-based result cache for one {@link PluginCacheable memoized} method of one service
+ * instance. Keys combine the current tenant with a copy of the call arguments, so tenants never
+ * see each other's results and a caller mutating an argument afterwards cannot corrupt the key.
+ * Null results are cached as well.
+ */
+@Slf4j
+final class ServiceResultCache {
+
+    /** Returned by {@link #get} when nothing is cached for the key. */
+    static final Object MISS = new Object();
+
+    private static final Object NULL = new Object();
+
+    /** Caches per service instance (weak, identity-keyed) and method. */
+    private static final Cache<Object, Map<Method, ServiceResultCache>> BY_INSTANCE = Caffeine.newBuilder()
+            .weakKeys()
+            .build();
+
+    /** How a method is memoized: from {@link PluginCacheable} or {@link ServiceProxy#registerCacheable}. */
+    record Policy(Duration ttl, int maxEntries) {}
+
+    private final Policy policy;
+    private final Cache<Key, Object> cache;
+    private final AtomicBoolean bypassLogged = new AtomicBoolean();
+
+    private ServiceResultCache(Policy policy) {
+        this.policy = policy;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(policy.ttl())
+                .maximumSize(policy.maxEntries())
+                .build();
+    }
+
+    /**
+     * The cache of {@code method} on {@code service}, created on first use. A cache built for
+     * another policy (the method was re-registered) is replaced.
+     */
+    static ServiceResultCache forTarget(Object service, Method method, Policy policy) {
+        Map<Method, ServiceResultCache> caches = BY_INSTANCE.get(service, instance -> new ConcurrentHashMap<>());
+        ServiceResultCache cache = caches.get(method);
+        if (cache != null && cache.policy.equals(policy)) return cache;
+        return caches.compute(method, (m, existing) ->
+                existing != null && existing.policy.equals(policy) ? existing : new ServiceResultCache(policy));
+    }
+
+    /**
+     * Key for this call, or null when an argument cannot be copied safely (a mutable type other
+     * than a collection, map or array); such calls are not memoized, which is logged once.
+     */
+    Key key(Method method, Object[] args) {
+        Object[] copy = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            copy[i] = copyOf(args[i]);
+            if (copy[i] == UNCOPYABLE) {
+                if (bypassLogged.compareAndSet(false, true)) {
+                    log.warn("Not memoizing {}.{} for {} arguments: they cannot be copied into a cache key",
+                            method.getDeclaringClass().getSimpleName(), method.getName(), args[i].getClass().getName());
+                }
+                return null;
+            }
+        }
+        return new Key(Utils.getTenantIdOrNull(), copy);
+    }
+
+    Object get(Key key) {
+        Object value = cache.getIfPresent(key);
+        if (value == null) return MISS;
+        return value == NULL ? null : value;
+    }
+
+    void put(Key key, Object value) {
+        cache.put(key, value != null ? value : NULL);
+    }
+
+    // ========================
+    // KEY COPIES
+    // ========================
+
+    private static final Object UNCOPYABLE = new Object();
+
+    /** An immutable value as-is, a collection, map or array copied deeply, else {@link #UNCOPYABLE}. */
+    private static Object copyOf(Object value) {
+        if (value == null || isImmutable(value)) return value;
+        if (value instanceof List<?> list) {
+            List<Object> copy = new ArrayList<>(list.size());
+            for (Object element : list) {
+                Object elementCopy = copyOf(element);
+                if (elementCopy == UNCOPYABLE) return UNCOPYABLE;
+                copy.add(elementCopy);
+            }
+            return Collections.unmodifiableList(copy);
+        }
+        if (value instanceof Set<?> set) {
+            Set<Object> copy = new LinkedHashSet<>();
+            for (Object element : set) {
+                Object elementCopy = copyOf(element);
+                if (elementCopy == UNCOPYABLE) return UNCOPYABLE;
+                copy.add(elementCopy);
+            }
+            return Collections.unmodifiableSet(copy);
+        }
+        if (value instanceof Map<?, ?> map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                Object keyCopy = copyOf(entry.getKey());
+                Object valueCopy = copyOf(entry.getValue());
+                if (keyCopy == UNCOPYABLE || valueCopy == UNCOPYABLE) return UNCOPYABLE;
+                copy.put(keyCopy, valueCopy);
+            }
+            return Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof Object[] array) {
+            Object[] copy = array.clone();
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] = copyOf(copy[i]);
+                if (copy[i] == UNCOPYABLE) return UNCOPYABLE;
+            }
+            return copy;
+        }
+        if (value.getClass().isArray()) {
+            return cloneArray(value);
+        }
+        // Beans, records, queues and the like: no way to know they are safe to hold on to
+        return UNCOPYABLE;
+    }
+
+    private static boolean isImmutable(Object value) {
+        return value instanceof String || value instanceof Boolean || value instanceof Character
+                || value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof Double || value instanceof Float
+                || value instanceof BigDecimal || value instanceof BigInteger
+                || value instanceof UUID || value instanceof Enum<?> || value instanceof Class<?>
+                || value instanceof TemporalAccessor && value.getClass().getPackageName().equals("java.time");
+    }
+
+    private static Object cloneArray(Object array) {
+        return switch (array) {
+            case int[] a -> a.clone();
+            case long[] a -> a.clone();
+            case byte[] a -> a.clone();
+            case char[] a -> a.clone();
+            case short[] a -> a.clone();
+            case double[] a -> a.clone();
+            case float[] a -> a.clone();
+            case boolean[] a -> a.clone();
+            default -> UNCOPYABLE;
+        };
+    }
+
+    record Key(String tenantId, Object[] args) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key other
+                    && Objects.equals(tenantId, other.tenantId)
+                    && Arrays.deepEquals(args, other.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(tenantId) + Arrays.deepHashCode(args);
+        }
+    }
+}
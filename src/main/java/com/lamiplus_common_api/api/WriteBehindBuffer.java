@@ -0,0 +1,204 @@
+package com.lamiplus_common_api.api;
+
+import com.lamiplus_common_api.common.Utils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Bounded write-behind queue for one entity, used by {@link PluginBridge.SaveBuilder#enqueue()}.
+ *
+ * A virtual thread drains the queue in batches of {@code batchSize}, as soon as a full batch is
+ * waiting or at the latest every {@code flushInterval}. Producers block for up to
+ * {@code enqueueTimeout} while the queue is full and are rejected after that (backpressure).
+ * Each write remembers the tenant it was enqueued under and is saved with that tenant's context.
+ * {@link #close} stops the thread and flushes whatever is left.
+ *
+ * Rows that fail to save are logged and counted in {@code plugin.writebehind.dropped}
+ * (tagged with {@code entity}); they are not retried.
+ */
+@Slf4j
+final class WriteBehindBuffer {
+
+    private record Pending(String tenantId, Map<String, Object> data) {}
+
+    private final String entityName;
+    private final BlockingQueue<Pending> queue;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration enqueueTimeout;
+    private final ToIntFunction<List<Map<String, Object>>> saver;
+    private final Counter dropped;
+
+    private final ReentrantLock signalLock = new ReentrantLock();
+    private final Condition batchReady = signalLock.newCondition();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    WriteBehindBuffer(String entityName, int capacity, int batchSize, Duration flushInterval,
+                      Duration enqueueTimeout, ToIntFunction<List<Map<String, Object>>> saver) {
+        this.entityName = entityName;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.enqueueTimeout = enqueueTimeout;
+        this.saver = saver;
+        this.dropped = Counter.builder("plugin.writebehind.dropped")
+                .description("Write-behind rows that failed to save")
+                .tag("entity", entityName)
+                .register(Metrics.globalRegistry);
+        this.flusher = Thread.ofVirtual().name("plugin-write-behind-" + entityName).start(this::run);
+    }
+
+    /**
+     * Queue a write, stamping the current tenant into {@code tenantId} if the data has none.
+     * The write is later saved under that tenant, so a write with no tenant at all, or one naming
+     * another tenant than the context, is refused here rather than saved under the wrong tenant.
+     *
+     * @throws IllegalStateException if neither the context nor the data names a tenant, if they
+     *         name different tenants, or if the buffer is closed
+     * @throws RejectedExecutionException if the queue stays full for the enqueue timeout
+     */
+    void enqueue(Map<String, Object> data) {
+        if (closed) {
+            throw new IllegalStateException("Write-behind buffer for " + entityName + " is closed");
+        }
+        String tenantId = Utils.getTenantIdOrNull();
+        Object dataTenant = data.get("tenantId");
+        if (tenantId != null) {
+            if (dataTenant == null) {
+                data.put("tenantId", tenantId);
+            } else if (!tenantId.equals(dataTenant.toString())) {
+                throw new IllegalStateException("Cannot queue a write for " + entityName + " of tenant "
+                        + dataTenant + " from tenant " + tenantId);
+            }
+        } else if (dataTenant != null) {
+            tenantId = dataTenant.toString();
+        } else {
+            throw new IllegalStateException("Cannot queue a write for " + entityName + " without a tenant");
+        }
+
+        Pending pending = new Pending(tenantId, data);
+        boolean accepted;
+        try {
+            accepted = queue.offer(pending, enqueueTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing a write for " + entityName, e);
+        }
+        if (!accepted) {
+            throw new RejectedExecutionException("Write-behind queue for " + entityName + " is full ("
+                    + queue.size() + " pending)");
+        }
+        // Closed while we were offering: the final flush may already have run, so take the write back
+        if (closed && queue.remove(pending)) {
+            throw new IllegalStateException("Write-behind buffer for " + entityName + " is closed");
+        }
+        if (queue.size() >= batchSize) signal();
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    /** Save everything queued so far, on the calling thread. */
+    void flush() {
+        flushLock.lock();
+        try {
+            int remaining = queue.size();
+            while (remaining > 0) {
+                List<Pending> batch = new ArrayList<>(Math.min(batchSize, remaining));
+                queue.drainTo(batch, batchSize);
+                if (batch.isEmpty()) break;
+                remaining -= batch.size();
+                save(batch);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /** Stop accepting writes, wait up to {@code timeout} for the flusher and save what is left. */
+    void close(Duration timeout) {
+        closed = true;
+        signal();
+        try {
+            flusher.join(timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            log.warn("Write-behind flusher for {} did not stop within {}s, {} writes pending",
+                    entityName, timeout.toSeconds(), queue.size());
+            return;
+        }
+        flush();
+    }
+
+    private void run() {
+        while (!closed) {
+            signalLock.lock();
+            try {
+                if (queue.size() < batchSize && !closed) {
+                    batchReady.await(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                }
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                signalLock.unlock();
+            }
+            flushQuietly();
+        }
+        flushQuietly();
+    }
+
+    /** Flush on the flusher thread, which must survive anything a flush throws. */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            log.error("Write-behind flush of {} failed", entityName, t);
+        }
+    }
+
+    private void signal() {
+        signalLock.lock();
+        try {
+            batchReady.signal();
+        } finally {
+            signalLock.unlock();
+        }
+    }
+
+    /** Save a drained batch, one saveAll per tenant; failures are logged and counted, not retried. */
+    private void save(List<Pending> batch) {
+        Map<String, List<Map<String, Object>>> byTenant = new LinkedHashMap<>();
+        for (Pending pending : batch) {
+            byTenant.computeIfAbsent(pending.tenantId(), k -> new ArrayList<>()).add(pending.data());
+        }
+        byTenant.forEach((tenantId, rows) -> {
+            try {
+                int failed = Utils.withTenantContext(tenantId, () -> saver.applyAsInt(rows)).call();
+                dropped.increment(failed);
+            } catch (Throwable t) {
+                dropped.increment(rows.size());
+                log.error("Write-behind save of {} {} rows for tenant {} failed, rows dropped",
+                        rows.size(), entityName, tenantId, t);
+            }
+        });
+    }
+}
@@ -3,26 +3,78 @@ package com.lamiplus_common_api.common;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.Callable;
+
 @Component
 @Slf4j
 public class Utils {
 
+    private static final String CORE_TENANT_CONTEXT = "coreapplication.service.plugin_manager.TenantContext";
+
     public static String getTenantIdFromContext() {
         log.debug("getTenantIdFromContext() called");
 
-        try {
-            Class<?> tenantContextClass = Class.forName("coreapplication.service.plugin_manager.TenantContext");
-            java.lang.reflect.Method method = tenantContextClass.getMethod("getTenantId");
-            String tenantId = (String) method.invoke(null);
+        String tenantId = resolveTenantId();
+        if (tenantId != null) {
+            return tenantId;
+        }
+
+        log.error("No tenant ID available - DevTenantContext.isSet() = {}", DevTenantContext.isSet());
+        throw new RuntimeException("Failed to get tenant ID from context");
+    }
+
+    /**
+     * Like {@link #getTenantIdFromContext()}, but returns null instead of failing when no
+     * tenant is set (background jobs, startup).
+     */
+    public static String getTenantIdOrNull() {
+        return resolveTenantId();
+    }
 
-            if (tenantId != null && !tenantId.isEmpty()) {
-                log.debug("Tenant ID from core context: {}", tenantId);
-                return tenantId;
+    /**
+     * Wrap a task so it runs with the caller's tenant context on another thread.
+     * Tenant contexts are thread-local, so work handed to an executor would otherwise
+     * run without a tenant. Returns the task unchanged when no tenant is set.
+     */
+    public static <T> Callable<T> withTenantContext(Callable<T> task) {
+        return withTenantContext(resolveTenantId(), task);
+    }
+
+    /**
+     * Wrap a task so it runs with the given tenant context, e.g. work recorded for a tenant
+     * earlier and replayed later. Whatever tenant the running thread had before is restored
+     * afterwards, so this is safe on request threads too. Returns the task unchanged when
+     * {@code tenantId} is null.
+     */
+    public static <T> Callable<T> withTenantContext(String tenantId, Callable<T> task) {
+        if (tenantId == null) {
+            return task;
+        }
+        return () -> {
+            String previousCore = getCoreTenantId();
+            String previousDev = DevTenantContext.getTenantId();
+            boolean core = setCoreTenantId(tenantId);
+            if (!core) DevTenantContext.setTenantId(tenantId);
+            try {
+                return task.call();
+            } finally {
+                if (core) {
+                    if (previousCore != null) setCoreTenantId(previousCore);
+                    else clearCoreTenantId();
+                } else if (previousDev != null) {
+                    DevTenantContext.setTenantId(previousDev);
+                } else {
+                    DevTenantContext.clear();
+                }
             }
-        } catch (ClassNotFoundException e) {
-            log.debug("Core TenantContext not available - running in standalone mode");
-        } catch (Exception e) {
-            log.debug("Could not access core TenantContext: {}", e.getMessage());
+        };
+    }
+
+    private static String resolveTenantId() {
+        String coreTenantId = getCoreTenantId();
+        if (coreTenantId != null) {
+            log.debug("Tenant ID from core context: {}", coreTenantId);
+            return coreTenantId;
         }
 
         log.debug("Checking DevTenantContext.isSet(): {}", DevTenantContext.isSet());
@@ -31,9 +83,41 @@ public class Utils {
             log.debug("Tenant ID from dev context: {}", tenantId);
             return tenantId;
         }
+        return null;
+    }
 
-        log.error("No tenant ID available - DevTenantContext.isSet() = {}", DevTenantContext.isSet());
-        throw new RuntimeException("Failed to get tenant ID from context");
+    /** The core application's tenant, or null when unset or not running inside the core. */
+    private static String getCoreTenantId() {
+        try {
+            Class<?> tenantContextClass = Class.forName(CORE_TENANT_CONTEXT);
+            java.lang.reflect.Method method = tenantContextClass.getMethod("getTenantId");
+            String tenantId = (String) method.invoke(null);
+            return tenantId != null && !tenantId.isEmpty() ? tenantId : null;
+        } catch (ClassNotFoundException e) {
+            log.debug("Core TenantContext not available - running in standalone mode");
+        } catch (Exception e) {
+            log.debug("Could not access core TenantContext: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    private static boolean setCoreTenantId(String tenantId) {
+        try {
+            Class<?> tenantContextClass = Class.forName(CORE_TENANT_CONTEXT);
+            tenantContextClass.getMethod("setTenantId", String.class).invoke(null, tenantId);
+            return true;
+        } catch (Exception e) {
+            log.debug("Could not set core TenantContext: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private static void clearCoreTenantId() {
+        try {
+            Class.forName(CORE_TENANT_CONTEXT).getMethod("clear").invoke(null);
+        } catch (Exception e) {
+            log.debug("Could not clear core TenantContext: {}", e.getMessage());
+        }
     }
 
     public static UserInfo getCurrentUser() {
@@ -99,13 +183,13 @@ public class Utils {
 
             if (principal instanceof String username) {
                 log.debug("Current user from String principal: {}", username);
-                return new UserInfo(null, username, username, getTenantIdSafe());
+                return new UserInfo(null, username, username, getTenantIdOrNull());
             }
 
             java.lang.reflect.Method getName = authentication.getClass().getMethod("getName");
             String name = (String) getName.invoke(authentication);
             log.debug("Current user from authentication.getName(): {}", name);
-            return new UserInfo(null, name, name, getTenantIdSafe());
+            return new UserInfo(null, name, name, getTenantIdOrNull());
 
         } catch (Exception e) {
             log.error("Could not get current user from SecurityContext: {}", e.getMessage(), e);
@@ -123,14 +207,6 @@ public class Utils {
         return user != null ? user.fullName() : null;
     }
 
-    private static String getTenantIdSafe() {
-        try {
-            return getTenantIdFromContext();
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
     public record UserInfo(
             String userId,
             String email,
@@ -0,0 +1,142 @@
+package com.lamiplus_common_api.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Resume tokens, the inclusive watermark start and batch assembly of {@link ChangeBatch}.
+ */
+class ChangeBatchTest {
+
+    private static final LocalDateTime T1 = LocalDateTime.of(2024, 3, 15, 10, 15, 30, 123_456_000);
+    private static final LocalDateTime T2 = T1.plusSeconds(1);
+
+    @Test
+    void resumeTokensRoundTrip() {
+        for (ChangeBatch.Position position : List.of(
+                new ChangeBatch.Position(T1, 42),
+                new ChangeBatch.Position(T1.withNano(0), 0),
+                new ChangeBatch.Position(T2, Long.MIN_VALUE),
+                new ChangeBatch.Position(T2, Long.MAX_VALUE))) {
+            assertEquals(position, ChangeBatch.position(ChangeBatch.resumeToken(position)));
+        }
+        assertNull(ChangeBatch.position(null));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        for (String token : List.of("", "not base64!", encode("c2024-03-15T10:15:30"), encode("x2024-03-15T10:15:30|1"),
+                encode("cyesterday|1"), encode("c2024-03-15T10:15:30|one"), encode("c|1"),
+                CursorPage.keysetCursor(1))) {
+            assertThrows(IllegalArgumentException.class, () -> ChangeBatch.position(token), token);
+        }
+    }
+
+    @Test
+    void watermarkStartIncludesRowsAtThatInstant() {
+        Instant watermark = T1.atZone(ZoneId.systemDefault()).toInstant();
+        ChangeBatch.Position start = ChangeBatch.position(ChangeBatch.startingAt(watermark));
+
+        assertTrue(ChangeBatch.isAfter(row(1L, T1), start));
+        assertTrue(ChangeBatch.isAfter(row(Long.MIN_VALUE + 1, T1), start));
+        assertTrue(ChangeBatch.isAfter(row(1L, T2), start));
+        assertFalse(ChangeBatch.isAfter(row(99L, T1.minusNanos(1000)), start));
+        assertNull(ChangeBatch.startingAt(null));
+    }
+
+    @Test
+    void resumePositionExcludesTheRowItWasTakenFrom() {
+        ChangeBatch.Position after = new ChangeBatch.Position(T1, 5);
+
+        assertFalse(ChangeBatch.isAfter(row(5L, T1), after));
+        assertFalse(ChangeBatch.isAfter(row(4L, T1), after));
+        assertTrue(ChangeBatch.isAfter(row(6L, T1), after));
+        assertTrue(ChangeBatch.isAfter(row(1L, T2), after));
+    }
+
+    @Test
+    void rowsWithoutUpdatedAtAreNeverAfter() {
+        assertFalse(ChangeBatch.isAfter(row(1L, null), null));
+        assertFalse(ChangeBatch.isAfter(row(1L, null), new ChangeBatch.Position(T1, 0)));
+        assertTrue(ChangeBatch.isAfter(row(1L, T1), null));
+    }
+
+    @Test
+    void mappedAndMixedTypedValuesAreAccepted() {
+        ChangeBatch.Position after = new ChangeBatch.Position(T1, 5);
+        Map<String, Object> mapped = new HashMap<>();
+        mapped.put("id", 6);
+        mapped.put("updatedAt", T1.toString());
+
+        assertTrue(ChangeBatch.isAfter(mapped, after));
+        mapped.put("id", "4");
+        assertFalse(ChangeBatch.isAfter(mapped, after));
+    }
+
+    @Test
+    void batchResumesAfterItsLastRowAndSplitsTombstones() {
+        UUID archived = UUID.randomUUID();
+        List<Map<String, Object>> rows = new ArrayList<>(List.of(row(1L, T1), row(2L, T1), row(3L, T2)));
+        rows.get(1).put("archived", 1);
+        rows.get(1).put("uuid", archived.toString());
+
+        ChangeBatch batch = ChangeBatch.of(rows, 2, null);
+
+        assertTrue(batch.hasMore());
+        assertEquals(List.of(rows.get(0)), batch.getChanges());
+        assertEquals(List.of(new ChangeBatch.Tombstone(archived, T1.atZone(ZoneId.systemDefault()).toInstant())),
+                batch.getTombstones());
+        assertEquals(new ChangeBatch.Position(T1, 2), ChangeBatch.position(batch.getResumeToken()));
+        assertEquals(T1.atZone(ZoneId.systemDefault()).toInstant(), batch.getNextWatermark());
+    }
+
+    @Test
+    void emptyBatchKeepsItsStartingPoint() {
+        String token = ChangeBatch.resumeToken(new ChangeBatch.Position(T2, 7));
+
+        ChangeBatch batch = ChangeBatch.of(List.of(), 10, token);
+
+        assertTrue(batch.isEmpty());
+        assertFalse(batch.hasMore());
+        assertEquals(token, batch.getResumeToken());
+        assertEquals(T2.atZone(ZoneId.systemDefault()).toInstant(), batch.getNextWatermark());
+        assertNull(ChangeBatch.of(List.of(), 10, null).getNextWatermark());
+    }
+
+    @Test
+    void feedOrderSortsByUpdatedAtThenId() {
+        List<Map<String, Object>> rows = new ArrayList<>(List.of(row(2L, T2), row(9L, T1), row(3L, T1), row(1L, null)));
+
+        rows.sort(ChangeBatch.FEED_ORDER);
+
+        assertEquals(List.of(1L, 3L, 9L, 2L), rows.stream().map(r -> r.get("id")).toList());
+    }
+
+    private static Map<String, Object> row(long id, LocalDateTime updatedAt) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("updatedAt", updatedAt == null ? null : updatedAt.toString());
+        row.put("archived", 0);
+        return row;
+    }
+
+    private static String encode(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,84 @@
+package com.lamiplus_common_api.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset and offset cursor tokens of {@link CursorPage}.
+ */
+class CursorPageTest {
+
+    @Test
+    void keysetCursorsRoundTrip() {
+        for (long id : new long[]{0, 1, 42, -7, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            assertEquals(id, CursorPage.lastId(CursorPage.keysetCursor(id)));
+        }
+    }
+
+    @Test
+    void offsetCursorsRoundTrip() {
+        for (int page : new int[]{0, 1, 500, Integer.MAX_VALUE}) {
+            assertEquals(page, CursorPage.page(CursorPage.offsetCursor(page)));
+        }
+    }
+
+    @Test
+    void nullCursorIsTheFirstPage() {
+        assertNull(CursorPage.lastId(null));
+        assertEquals(0, CursorPage.page(null));
+    }
+
+    @Test
+    void tokensAreUrlSafe() {
+        String cursor = CursorPage.keysetCursor(Long.MAX_VALUE);
+
+        assertTrue(cursor.matches("[A-Za-z0-9_-]+"), cursor);
+    }
+
+    @Test
+    void tokensOfTheOtherKindAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.page(CursorPage.keysetCursor(3)));
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.lastId(CursorPage.offsetCursor(3)));
+    }
+
+    @Test
+    void malformedTokensAreRejected() {
+        for (String cursor : List.of("", "not base64!", encode("k"), encode("kabc"), encode("x12"), encode("k1.5"),
+                ChangeBatch.startingAt(java.time.Instant.EPOCH))) {
+            assertThrows(IllegalArgumentException.class, () -> CursorPage.lastId(cursor), cursor);
+            assertThrows(IllegalArgumentException.class, () -> CursorPage.page(cursor), cursor);
+        }
+    }
+
+    @Test
+    void offsetsOutsideTheIntRangeAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.page(encode("o" + Long.MAX_VALUE)));
+        assertThrows(IllegalArgumentException.class, () -> CursorPage.page(encode("o-1")));
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        CursorPage last = CursorPage.last(List.of(Map.of("id", 1L)));
+        CursorPage more = CursorPage.of(List.of(Map.of("id", 1L)), CursorPage.keysetCursor(1));
+
+        assertFalse(last.hasMore());
+        assertNull(last.getNextCursor());
+        assertTrue(more.hasMore());
+        assertFalse(CursorPage.empty().hasMore());
+        assertTrue(CursorPage.empty().getItems().isEmpty());
+    }
+
+    private static String encode(String token) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,150 @@
+package com.lamiplus_common_api.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * In-memory evaluation of {@link PluginCriteria} against rows in {@link EntityMapper} form,
+ * where operands may be given in their entity type.
+ */
+class PluginCriteriaTest {
+
+    enum Status { ACTIVE, INACTIVE }
+
+    @Test
+    void nullRowValuesOnlyMatchNullChecks() {
+        Map<String, Object> row = row("status", null);
+
+        assertTrue(PluginCriteria.create().isNull("status").matches(row));
+        assertTrue(PluginCriteria.create().isNull("missing").matches(row));
+        assertFalse(PluginCriteria.create().isNotNull("status").matches(row));
+        assertFalse(PluginCriteria.create().eq("status", "ACTIVE").matches(row));
+        assertFalse(PluginCriteria.create().eqIgnoreCase("status", "active").matches(row));
+        assertFalse(PluginCriteria.create().in("status", List.of("ACTIVE")).matches(row));
+        assertFalse(PluginCriteria.create().range("status", "A", "Z").matches(row));
+    }
+
+    @Test
+    void nullOperandsBecomeNullChecks() {
+        PluginCriteria eqNull = PluginCriteria.create().eq("status", null);
+        PluginCriteria openRange = PluginCriteria.create().range("visitDate", null, null);
+
+        assertEquals(PluginCriteria.Operator.IS_NULL, eqNull.getConditions().get(0).operator());
+        assertEquals(PluginCriteria.Operator.IS_NOT_NULL, openRange.getConditions().get(0).operator());
+        assertTrue(eqNull.matches(row("status", null)));
+        assertFalse(openRange.matches(row("visitDate", null)));
+    }
+
+    @Test
+    void numbersCompareNumericallyAcrossTypes() {
+        Map<String, Object> row = row("count", 5L);
+
+        assertTrue(PluginCriteria.create().eq("count", 5).matches(row));
+        assertTrue(PluginCriteria.create().eq("count", (short) 5).matches(row));
+        assertTrue(PluginCriteria.create().eq("count", 5.0d).matches(row));
+        assertTrue(PluginCriteria.create().eq("count", new BigDecimal("5.00")).matches(row));
+        assertFalse(PluginCriteria.create().eq("count", 5.5d).matches(row));
+        assertTrue(PluginCriteria.create().range("count", 4.5d, 5).matches(row));
+        assertFalse(PluginCriteria.create().range("count", 6, null).matches(row));
+        assertTrue(PluginCriteria.create().in("count", List.of(1, 5)).matches(row));
+
+        assertEquals(0, PluginCriteria.compare(Long.MAX_VALUE, Long.MAX_VALUE));
+        assertTrue(PluginCriteria.compare(Long.MAX_VALUE, Long.MAX_VALUE - 1) > 0, "integral values compare exactly");
+        assertTrue(PluginCriteria.compare(1, 1.5f) < 0);
+    }
+
+    @Test
+    void entityTypedOperandsMatchMappedValues() {
+        UUID patient = UUID.randomUUID();
+        Map<String, Object> row = row("patientUuid", patient.toString(), "status", "ACTIVE", "visitDate", "2024-03-15");
+
+        assertTrue(PluginCriteria.create()
+                .eq("patientUuid", patient)
+                .eq("status", Status.ACTIVE)
+                .eq("visitDate", LocalDate.of(2024, 3, 15))
+                .matches(row));
+        assertTrue(PluginCriteria.create().in("status", List.of(Status.INACTIVE, Status.ACTIVE)).matches(row));
+        assertTrue(PluginCriteria.create().eqIgnoreCase("status", "active").matches(row));
+        assertFalse(PluginCriteria.create().eq("patientUuid", UUID.randomUUID()).matches(row));
+    }
+
+    @Test
+    void dateRangesParseMappedDatesAndIncludeTheirBounds() {
+        Map<String, Object> row = row("visitDate", "2024-03-15", "updatedAt", "2024-03-15T10:15:30");
+
+        assertTrue(PluginCriteria.create().range("visitDate", LocalDate.of(2024, 3, 15), LocalDate.of(2024, 3, 15)).matches(row));
+        assertTrue(PluginCriteria.create().range("visitDate", null, LocalDate.of(2024, 12, 31)).matches(row));
+        assertFalse(PluginCriteria.create().range("visitDate", LocalDate.of(2024, 3, 16), null).matches(row));
+        assertTrue(PluginCriteria.create()
+                .range("updatedAt", LocalDateTime.of(2024, 3, 15, 10, 15), LocalDateTime.of(2024, 3, 15, 10, 16))
+                .matches(row));
+    }
+
+    @Test
+    void unparseableDatesFallBackToText() {
+        Map<String, Object> row = row("visitDate", "15/03/2024");
+
+        assertFalse(PluginCriteria.create().eq("visitDate", LocalDate.of(2024, 3, 15)).matches(row));
+        // "15/03/2024" sorts before "2024-03-15" as text
+        assertTrue(PluginCriteria.compare("15/03/2024", LocalDate.of(2024, 3, 15)) < 0);
+    }
+
+    @Test
+    void inIgnoresNullCandidatesAndEmptyMatchesNothing() {
+        Map<String, Object> row = row("type", "PRIMARY");
+
+        assertTrue(PluginCriteria.create().in("type", Arrays.asList(null, "PRIMARY")).matches(row));
+        assertFalse(PluginCriteria.create().in("type", List.of()).matches(row));
+    }
+
+    @Test
+    void allConditionsMustHold() {
+        PluginCriteria criteria = PluginCriteria.create().eq("status", "ACTIVE").range("score", 10, 20);
+        Map<String, Object> inRange = row("status", "ACTIVE", "score", 15);
+        Map<String, Object> outOfRange = row("status", "ACTIVE", "score", 25);
+
+        assertTrue(criteria.matches(inRange));
+        assertFalse(criteria.matches(outOfRange));
+        assertEquals(List.of(inRange), criteria.filter(List.of(inRange, outOfRange)));
+    }
+
+    @Test
+    void emptyCriteriaMatchesEverything() {
+        List<Map<String, Object>> rows = List.of(row("status", "ACTIVE"));
+        PluginCriteria criteria = PluginCriteria.create();
+
+        assertTrue(criteria.isEmpty());
+        assertTrue(criteria.matches(row("status", null)));
+        assertSame(rows, criteria.filter(rows));
+    }
+
+    @Test
+    void equalitiesKeepTheFirstEqPerField() {
+        PluginCriteria criteria = PluginCriteria.create()
+                .eq("status", "ACTIVE")
+                .eqIgnoreCase("type", "primary")
+                .eq("status", "INACTIVE")
+                .range("score", 1, 2);
+
+        assertEquals(Map.of("status", "ACTIVE"), criteria.getEqualities());
+    }
+
+    private static Map<String, Object> row(Object... keyValues) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) row.put((String) keyValues[i], keyValues[i + 1]);
+        return row;
+    }
+}
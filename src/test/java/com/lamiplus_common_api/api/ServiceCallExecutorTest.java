@@ -0,0 +1,111 @@
+package com.lamiplus_common_api.api;
+
+import com.lamiplus_common_api.common.DevTenantContext;
+import com.lamiplus_common_api.common.Utils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulkhead and deadline handling of {@link ServiceCallExecutor}. Bulkheads are global per service
+ * name, so each test uses its own name.
+ */
+class ServiceCallExecutorTest {
+
+    private static final Duration WAIT = Duration.ofSeconds(5);
+
+    @AfterEach
+    void clearTenant() {
+        DevTenantContext.clear();
+    }
+
+    @Test
+    void timedOutCallsReturnEveryPermit() throws Exception {
+        String service = "executorTest.timeout";
+        int max = 3;
+        ServiceCallExecutor.setMaxConcurrentCalls(service, max);
+        CountDownLatch started = new CountDownLatch(max);
+        CountDownLatch never = new CountDownLatch(1);
+
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < max; i++) {
+            calls.add(ServiceCallExecutor.submit(service, Duration.ofMillis(200), () -> {
+                started.countDown();
+                never.await();
+                return "finished";
+            }));
+        }
+        assertTrue(started.await(WAIT.toMillis(), TimeUnit.MILLISECONDS));
+        assertEquals(0, ServiceCallExecutor.availablePermits(service));
+
+        CompletableFuture<String> overflow = ServiceCallExecutor.submit(service, null, () -> "overflow");
+        assertInstanceOf(RejectedExecutionException.class, failure(overflow));
+
+        for (CompletableFuture<String> call : calls) {
+            assertInstanceOf(TimeoutException.class, failure(call));
+        }
+        // Permits come back once the interrupted tasks have actually finished
+        awaitPermits(service, max);
+
+        assertEquals("again", ServiceCallExecutor.submit(service, null, () -> "again")
+                .get(WAIT.toMillis(), TimeUnit.MILLISECONDS));
+        awaitPermits(service, max);
+    }
+
+    @Test
+    void failedCallCompletesExceptionallyAndReturnsItsPermit() throws Exception {
+        String service = "executorTest.failure";
+        ServiceCallExecutor.setMaxConcurrentCalls(service, 1);
+
+        CompletableFuture<Object> call = ServiceCallExecutor.submit(service, WAIT, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        Throwable error = failure(call);
+        assertInstanceOf(IllegalStateException.class, error);
+        assertEquals("boom", error.getMessage());
+        awaitPermits(service, 1);
+    }
+
+    @Test
+    void carriesTheCallersTenantContext() throws Exception {
+        DevTenantContext.setTenantId("tenant-a");
+
+        CompletableFuture<String> call = ServiceCallExecutor.submit("executorTest.tenant", WAIT, Utils::getTenantIdOrNull);
+
+        assertEquals("tenant-a", call.get(WAIT.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void rejectsInvalidBulkheadSize() {
+        assertThrows(IllegalArgumentException.class, () -> ServiceCallExecutor.setMaxConcurrentCalls("executorTest.invalid", 0));
+    }
+
+    private static Throwable failure(CompletableFuture<?> future) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> future.get(WAIT.toMillis(), TimeUnit.MILLISECONDS));
+        return e.getCause();
+    }
+
+    private static void awaitPermits(String service, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (ServiceCallExecutor.availablePermits(service) != expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, ServiceCallExecutor.availablePermits(service));
+    }
+}
@@ -0,0 +1,116 @@
+package com.lamiplus_common_api.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * State machine of {@link ServiceCircuitBreaker}: the sliding window, the failure-rate threshold,
+ * fail-fast while open and the single half-open probe.
+ */
+class ServiceCircuitBreakerTest {
+
+    /** Never leaves OPEN on its own within a test. */
+    private final ServiceCircuitBreaker breaker = new ServiceCircuitBreaker("svc", "method", Duration.ofHours(1));
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        fail(breaker, ServiceCircuitBreaker.MINIMUM_CALLS - 1);
+
+        assertEquals(ServiceCircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+        assertEquals(100, breaker.getFailureRate());
+    }
+
+    @Test
+    void opensAtFailureRateThresholdAndFailsFast() {
+        succeed(breaker, 5);
+        fail(breaker, 4);
+        assertEquals(ServiceCircuitBreaker.State.CLOSED, breaker.getState());
+
+        fail(breaker, 1);
+
+        assertEquals(ServiceCircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(2, breaker.getRejectedCount());
+        assertEquals(5, breaker.getSuccessCount());
+        assertEquals(5, breaker.getFailureCount());
+    }
+
+    @Test
+    void windowForgetsOutcomesOlderThanItsSize() {
+        succeed(breaker, ServiceCircuitBreaker.WINDOW_SIZE);
+        fail(breaker, 9);
+        // 9 of the last 20 failed: 45%
+        assertEquals(ServiceCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(45, breaker.getFailureRate());
+
+        fail(breaker, 1);
+
+        assertEquals(ServiceCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void halfOpenLetsOneProbeThroughAndClosesOnSuccess() {
+        ServiceCircuitBreaker shortOpen = new ServiceCircuitBreaker("svc", "method", Duration.ZERO);
+        fail(shortOpen, ServiceCircuitBreaker.MINIMUM_CALLS);
+        assertEquals(ServiceCircuitBreaker.State.OPEN, shortOpen.getState());
+
+        assertTrue(shortOpen.tryAcquire());
+        assertEquals(ServiceCircuitBreaker.State.HALF_OPEN, shortOpen.getState());
+        assertFalse(shortOpen.tryAcquire(), "only one probe at a time");
+
+        shortOpen.onSuccess();
+
+        assertEquals(ServiceCircuitBreaker.State.CLOSED, shortOpen.getState());
+        assertEquals(0, shortOpen.getFailureRate());
+        assertEquals(0, shortOpen.consecutiveFailures());
+        assertTrue(shortOpen.tryAcquire());
+    }
+
+    @Test
+    void failedProbeReopens() {
+        ServiceCircuitBreaker shortOpen = new ServiceCircuitBreaker("svc", "method", Duration.ZERO);
+        fail(shortOpen, ServiceCircuitBreaker.MINIMUM_CALLS);
+        assertTrue(shortOpen.tryAcquire());
+
+        shortOpen.onFailure();
+
+        assertEquals(ServiceCircuitBreaker.State.OPEN, shortOpen.getState());
+        assertEquals(ServiceCircuitBreaker.MINIMUM_CALLS + 1, shortOpen.consecutiveFailures());
+    }
+
+    @Test
+    void resetClosesAndForgetsTheWindow() {
+        fail(breaker, ServiceCircuitBreaker.MINIMUM_CALLS);
+        assertEquals(ServiceCircuitBreaker.State.OPEN, breaker.getState());
+
+        breaker.reset();
+
+        assertEquals(ServiceCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(0, breaker.getFailureRate());
+        assertTrue(breaker.tryAcquire());
+        // A fresh window needs MINIMUM_CALLS again before it can open
+        fail(breaker, ServiceCircuitBreaker.MINIMUM_CALLS - 1);
+        assertEquals(ServiceCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private static void succeed(ServiceCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onSuccess();
+        }
+    }
+
+    private static void fail(ServiceCircuitBreaker breaker, int calls) {
+        for (int i = 0; i < calls; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+}
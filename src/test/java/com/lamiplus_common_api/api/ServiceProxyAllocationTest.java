@@ -0,0 +1,95 @@
+package com.lamiplus_common_api.api;
+
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The fixed-arity {@code callLong}/{@code callInt}/{@code callBoolean} overloads are meant to
+ * allocate nothing per call once the call shape is resolved. Measured with the JVM's per-thread
+ * allocation counter after a warm-up, so a regression (an argument array, a boxed result)
+ * shows up as bytes per call.
+ */
+class ServiceProxyAllocationTest {
+
+    private static final int WARMUP = 200_000;
+    private static final int CALLS = 100_000;
+
+    /** Well below one boxed Long or one-element Object[] (16 bytes) per call. */
+    private static final double MAX_BYTES_PER_CALL = 1.0;
+
+    static class CounterService {
+        public long countAll() {
+            return 42L;
+        }
+
+        public long countByStatus(String status) {
+            return status.length();
+        }
+
+        public int countBetween(String from, String to, String status) {
+            return from.length() + to.length() + status.length();
+        }
+
+        public boolean hasActive(String status, String facility) {
+            return status.equals(facility);
+        }
+
+        public Long countBoxed(String status) {
+            return (long) status.length();
+        }
+    }
+
+    private final ServiceProxy proxy = new ServiceProxy(new CounterService(), "counterService");
+
+    @Test
+    void primitiveOverloadsReturnTheServiceResult() {
+        assertEquals(42L, proxy.callLong("countAll"));
+        assertEquals(6L, proxy.callLong("countByStatus", "ACTIVE"));
+        assertEquals(8, proxy.callInt("countBetween", "a", "b", "ACTIVE"));
+        assertTrue(proxy.callBoolean("hasActive", "x", "x"));
+        assertEquals(6L, proxy.callLong("countBoxed", "ACTIVE"));
+        assertEquals(0L, proxy.callLong("noSuchMethod", "ACTIVE"));
+    }
+
+    @Test
+    void longOverloadsDoNotAllocate() {
+        assertAllocationFree(() -> proxy.callLong("countAll"));
+        assertAllocationFree(() -> proxy.callLong("countByStatus", "ACTIVE"));
+    }
+
+    @Test
+    void intAndBooleanOverloadsDoNotAllocate() {
+        assertAllocationFree(() -> proxy.callInt("countBetween", "a", "b", "ACTIVE"));
+        assertAllocationFree(() -> proxy.callBoolean("hasActive", "x", "y") ? 1 : 0);
+    }
+
+    private static void assertAllocationFree(LongSupplier call) {
+        com.sun.management.ThreadMXBean threads = allocationCounter();
+        long sink = 0;
+        for (int i = 0; i < WARMUP; i++) sink += call.getAsLong();
+
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < CALLS; i++) sink += call.getAsLong();
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        double perCall = (double) allocated / CALLS;
+        assertTrue(perCall < MAX_BYTES_PER_CALL,
+                "expected no allocation per call, measured " + perCall + " bytes (sink " + sink + ")");
+    }
+
+    private static com.sun.management.ThreadMXBean allocationCounter() {
+        Assumptions.assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "per-thread allocation counter not available on this JVM");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(threads.isThreadAllocatedMemorySupported(), "allocation counter unsupported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+        return threads;
+    }
+}
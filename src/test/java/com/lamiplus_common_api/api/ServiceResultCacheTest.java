@@ -0,0 +1,124 @@
+package com.lamiplus_common_api.api;
+
+import com.lamiplus_common_api.common.DevTenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Keys, lookups and per-instance ownership of {@link ServiceResultCache}.
+ */
+class ServiceResultCacheTest {
+
+    private static final ServiceResultCache.Policy POLICY = new ServiceResultCache.Policy(Duration.ofMinutes(1), 100);
+
+    static class LookupService {
+        public String describe(Object criteria) {
+            return String.valueOf(criteria);
+        }
+    }
+
+    private final LookupService service = new LookupService();
+    private final Method method = describe();
+
+    @AfterEach
+    void clearTenant() {
+        DevTenantContext.clear();
+    }
+
+    @Test
+    void returnsMissUntilPutAndCachesNullResults() {
+        ServiceResultCache cache = ServiceResultCache.forTarget(service, method, POLICY);
+        ServiceResultCache.Key key = cache.key(method, new Object[]{"a"});
+
+        assertSame(ServiceResultCache.MISS, cache.get(key));
+        cache.put(key, "value");
+        assertEquals("value", cache.get(cache.key(method, new Object[]{"a"})));
+
+        ServiceResultCache.Key nullKey = cache.key(method, new Object[]{"b"});
+        cache.put(nullKey, null);
+        assertNull(cache.get(nullKey));
+    }
+
+    @Test
+    void keysAreScopedToTheTenant() {
+        ServiceResultCache cache = ServiceResultCache.forTarget(service, method, POLICY);
+        DevTenantContext.setTenantId("tenant-a");
+        ServiceResultCache.Key keyA = cache.key(method, new Object[]{"x"});
+        cache.put(keyA, "for a");
+
+        DevTenantContext.setTenantId("tenant-b");
+        ServiceResultCache.Key keyB = cache.key(method, new Object[]{"x"});
+
+        assertNotEquals(keyA, keyB);
+        assertSame(ServiceResultCache.MISS, cache.get(keyB));
+    }
+
+    @Test
+    void mutatingAnArgumentAfterwardsDoesNotChangeTheKey() {
+        ServiceResultCache cache = ServiceResultCache.forTarget(service, method, POLICY);
+        List<Object> statuses = new ArrayList<>(List.of("ACTIVE"));
+        int[] counts = {1, 2};
+        ServiceResultCache.Key key = cache.key(method, new Object[]{Map.of("statuses", statuses), counts});
+        cache.put(key, "active");
+
+        statuses.add("INACTIVE");
+        counts[0] = 9;
+
+        assertEquals("active", cache.get(key));
+        assertEquals(key, cache.key(method, new Object[]{Map.of("statuses", List.of("ACTIVE")), new int[]{1, 2}}));
+        assertNotEquals(key, cache.key(method, new Object[]{Map.of("statuses", statuses), counts}));
+    }
+
+    @Test
+    void argumentsThatCannotBeCopiedAreNotMemoized() {
+        ServiceResultCache cache = ServiceResultCache.forTarget(service, method, POLICY);
+
+        assertNull(cache.key(method, new Object[]{new StringBuilder("x")}));
+        assertNull(cache.key(method, new Object[]{List.of(new StringBuilder("x"))}));
+    }
+
+    @Test
+    void cachesBelongToOneInstanceAndPolicy() {
+        ServiceResultCache cache = ServiceResultCache.forTarget(service, method, POLICY);
+
+        assertSame(cache, ServiceResultCache.forTarget(service, method, POLICY));
+        assertNotSame(cache, ServiceResultCache.forTarget(new LookupService(), method, POLICY));
+
+        ServiceResultCache.Policy shorter = new ServiceResultCache.Policy(Duration.ofSeconds(1), 100);
+        ServiceResultCache replaced = ServiceResultCache.forTarget(service, method, shorter);
+        assertNotSame(cache, replaced);
+        assertSame(replaced, ServiceResultCache.forTarget(service, method, shorter));
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() throws InterruptedException {
+        ServiceResultCache cache = ServiceResultCache.forTarget(service, method,
+                new ServiceResultCache.Policy(Duration.ofMillis(50), 100));
+        ServiceResultCache.Key key = cache.key(method, new Object[]{"a"});
+        cache.put(key, "value");
+
+        Thread.sleep(150);
+
+        assertSame(ServiceResultCache.MISS, cache.get(key));
+    }
+
+    private static Method describe() {
+        try {
+            return LookupService.class.getMethod("describe", Object.class);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}